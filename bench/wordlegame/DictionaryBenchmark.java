@@ -0,0 +1,113 @@
+package wordlegame;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * DictionaryBenchmark - Measures {@link WordleGame#pickWords(String)} and
+ * {@link MappedDictionary#openCompiled} on the shipped word list and on
+ * generated dictionaries, and the secret word selection done for every new
+ * game.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DictionaryBenchmark {
+
+    /**
+     * Number of words in the dictionary; 0 means the shipped
+     * secretWords5.txt.
+     */
+    @Param({"0", "10000", "500000"})
+    public int words;
+
+    private Path file;
+
+    private SecretScheduler.Bag secrets;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (this.words == 0) {
+            this.file = Path.of("secretWords5.txt");
+        } else {
+            this.file = Files.createTempFile("wordle-bench", ".txt");
+            SplittableRandom random = new SplittableRandom(42);
+            try (PrintWriter pw = new PrintWriter(Files.newBufferedWriter(this.file))) {
+                char[] word = new char[5];
+                for (int i = 0; i < this.words; i++) {
+                    for (int j = 0; j < word.length; j++) {
+                        word[j] = (char) ('a' + random.nextInt(26));
+                    }
+                    pw.print(word);
+                    pw.print(i % 12 == 11 ? '\n' : ' ');
+                }
+            }
+        }
+        this.secrets = new SecretScheduler.Bag(PackedWordList.of(WordleGame.pickWords(this.file.toString()), 5),
+                new SplittableRandom());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (this.words != 0) {
+            Files.deleteIfExists(this.file);
+            Files.deleteIfExists(MappedDictionary.compiledPath(this.file, 5));
+        }
+    }
+
+    /**
+     * Loads the whole dictionary, as done once at every launch.
+     *
+     * @return the loaded words.
+     * @throws IOException if the file cannot be read.
+     */
+    @Benchmark
+    public String[] pickWords() throws IOException {
+        return WordleGame.pickWords(this.file.toString());
+    }
+
+    /**
+     * Maps the compiled binary dictionary (compiled once, during the first
+     * invocation).
+     *
+     * @return the mapped dictionary.
+     * @throws IOException if the file cannot be compiled or mapped.
+     */
+    @Benchmark
+    public WordList openCompiled() throws IOException {
+        return MappedDictionary.openCompiled(this.file, 5);
+    }
+
+    /**
+     * Picks a secret word, as done for every new game.
+     *
+     * @return the selected word.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String selectRandomWord() {
+        return this.secrets.next();
+    }
+}
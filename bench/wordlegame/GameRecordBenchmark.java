@@ -0,0 +1,90 @@
+package wordlegame;
+
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * GameRecordBenchmark - Measures the reading of the journal lines done by
+ * {@link HistoryReplay}: the time of a record with its own parser and with
+ * {@link Instant#parse(CharSequence)}, and a whole line.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameRecordBenchmark {
+
+    /**
+     * Number of different times and lines parsed in turn.
+     */
+    private static final int COUNT = 1024;
+
+    private String[] times;
+
+    private String[] lines;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        this.times = new String[COUNT];
+        this.lines = new String[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            Instant time = Instant.ofEpochSecond(1_700_000_000L + random.nextInt(100_000_000),
+                    random.nextInt(1_000_000_000));
+            this.times[i] = time.toString();
+            this.lines[i] = new GameRecord(time, "MENOS", true, 6, new String[]{"PERRO", "MEEES", "MENOS"},
+                    new int[]{Feedback.score("MENOS", "PERRO"), Feedback.score("MENOS", "MEEES"),
+                        Feedback.allGreen(5)}).toLine();
+        }
+    }
+
+    /**
+     * Reads the time of a record, as the replay does.
+     *
+     * @return the instant, so the JIT cannot drop the call.
+     */
+    @Benchmark
+    public Instant parseInstant() {
+        this.next = (this.next + 1) & (COUNT - 1);
+        return GameRecord.parseInstant(this.times[this.next]);
+    }
+
+    /**
+     * Reads the same time with the JDK parser.
+     *
+     * @return the instant, so the JIT cannot drop the call.
+     */
+    @Benchmark
+    public Instant instantParse() {
+        this.next = (this.next + 1) & (COUNT - 1);
+        return Instant.parse(this.times[this.next]);
+    }
+
+    /**
+     * Reads a whole journal line.
+     *
+     * @return the record, so the JIT cannot drop the call.
+     */
+    @Benchmark
+    public GameRecord parseLine() {
+        this.next = (this.next + 1) & (COUNT - 1);
+        return GameRecord.parse(this.lines[this.next]);
+    }
+}
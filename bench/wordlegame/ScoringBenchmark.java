@@ -0,0 +1,131 @@
+package wordlegame;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ScoringBenchmark - Measures the per-guess scoring done in
+ * {@link WordleGame#start()}, as text and packed (see {@link GameSession}),
+ * and the batch scoring of one guess against many secret words used by the
+ * solver (see {@link BatchScorer}; vectorized when run with
+ * {@code --add-modules jdk.incubator.vector}, and always scalar in
+ * {@link #scoreBatchScalar()}).
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoringBenchmark {
+
+    /**
+     * Secret/guess pairs covering greens, yellows and repeated letters.
+     */
+    private final String[][] pairs = {
+        {"MENOS", "MEEES"},
+        {"LLAMA", "ALALA"},
+        {"CARIZ", "CARIZ"},
+        {"SALSA", "SSSSS"},
+        {"SUE\u00D1O", "DUE\u00D1O"},
+        {"PERRO", "TORRE"}
+    };
+
+    /**
+     * Number of secret words scored by every batch.
+     */
+    private static final int BATCH_SIZE = 4096;
+
+    private int next;
+
+    private BatchScorer scorer;
+
+    private BatchScorer scalar;
+
+    private long[] packedSecrets;
+
+    private long[] guesses;
+
+    private int[] feedbacks;
+
+    @Setup
+    public void setUp() {
+        this.next = 0;
+        long[] secrets = new long[BATCH_SIZE];
+        for (int i = 0; i < secrets.length; i++) {
+            secrets[i] = PackedWord.pack(this.pairs[i % this.pairs.length][i / this.pairs.length % 2]);
+        }
+        this.scorer = BatchScorer.of(new PackedWordList(secrets));
+        this.scalar = new BatchScorer(new PackedWordList(secrets));
+        this.guesses = new long[this.pairs.length];
+        this.packedSecrets = new long[this.pairs.length];
+        for (int i = 0; i < this.pairs.length; i++) {
+            this.guesses[i] = PackedWord.pack(this.pairs[i][1]);
+            this.packedSecrets[i] = PackedWord.pack(this.pairs[i][0]);
+        }
+        this.feedbacks = new int[BATCH_SIZE];
+    }
+
+    /**
+     * Scores one guess against its secret word.
+     *
+     * @return the packed feedback, so the JIT cannot drop the call.
+     */
+    @Benchmark
+    public int score() {
+        String[] pair = this.pairs[this.next];
+        this.next = (this.next + 1) % this.pairs.length;
+        return Feedback.score(pair[0], pair[1]);
+    }
+
+    /**
+     * Scores one packed guess against its packed secret word, as a game
+     * session does.
+     *
+     * @return the packed feedback, so the JIT cannot drop the call.
+     */
+    @Benchmark
+    public int scorePacked() {
+        int i = this.next;
+        this.next = (this.next + 1) % this.pairs.length;
+        return Feedback.score(this.packedSecrets[i], this.guesses[i]);
+    }
+
+    /**
+     * Scores one guess against {@value #BATCH_SIZE} secret words.
+     *
+     * @return the feedbacks, so the JIT cannot drop the call.
+     */
+    @Benchmark
+    public int[] scoreBatch() {
+        long guess = this.guesses[this.next];
+        this.next = (this.next + 1) % this.guesses.length;
+        this.scorer.score(guess, this.feedbacks);
+        return this.feedbacks;
+    }
+
+    /**
+     * Scores one guess against {@value #BATCH_SIZE} secret words without
+     * the Vector API.
+     *
+     * @return the feedbacks, so the JIT cannot drop the call.
+     */
+    @Benchmark
+    public int[] scoreBatchScalar() {
+        long guess = this.guesses[this.next];
+        this.next = (this.next + 1) % this.guesses.length;
+        this.scalar.score(guess, this.feedbacks);
+        return this.feedbacks;
+    }
+}
@@ -0,0 +1,55 @@
+package wordlegame;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ValidationBenchmark - Measures the validation of the words typed in
+ * {@link WordleGame#start()}, for valid and rejected inputs.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    /**
+     * Input typed by the player.
+     */
+    @Param({"perro", "SUE\u00D1O", "zzzzz", "12345", "per", "pe#ro", "perros"})
+    public String input;
+
+    private GuessValidator validator;
+
+    @Setup
+    public void setUp() throws IOException {
+        WordList words = MappedDictionary.openCompiled(Path.of("secretWords5.txt"), 5);
+        this.validator = new GuessValidator(5, PackedWordSet.of(words));
+    }
+
+    /**
+     * Validates one input line, including the dictionary lookup.
+     *
+     * @return the verdict.
+     */
+    @Benchmark
+    public GuessValidator.Verdict check() {
+        return this.validator.check(this.input);
+    }
+}
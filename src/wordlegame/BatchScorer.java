@@ -0,0 +1,175 @@
+package wordlegame;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * BatchScorer - Scores one guess against every word of a list at once.
+ *
+ * The words are kept as a struct of arrays: one {@code byte[]} per letter
+ * position with the letter code of every word, so the letters at one position
+ * of many secret words are contiguous in memory. {@link #of(WordList)} returns
+ * a SIMD implementation that compares a whole vector of secret words per
+ * instruction when the {@code jdk.incubator.vector} module is available (run
+ * with {@code --add-modules jdk.incubator.vector}), and this scalar one
+ * otherwise. Both give the same feedbacks as
+ * {@link Feedback#score(long, long)}.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public class BatchScorer {
+
+    /**
+     * Name of the module with the Vector API.
+     */
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /**
+     * Letter codes by position and word: {@code letters[p][w]}.
+     */
+    final byte[][] letters;
+
+    /**
+     * Number of words.
+     */
+    final int size;
+
+    /**
+     * Number of letters of every word.
+     */
+    final int wordLength;
+
+    /**
+     * Creates a scalar scorer. Every word must have the same length.
+     *
+     * @param words the secret words.
+     * @throws IllegalArgumentException if the words have different lengths.
+     */
+    BatchScorer(WordList words) {
+        this.size = words.size();
+        this.wordLength = this.size == 0 ? 0 : PackedWord.length(words.packedAt(0));
+        this.letters = new byte[this.wordLength][this.size];
+        for (int w = 0; w < this.size; w++) {
+            long packed = words.packedAt(w);
+            if (PackedWord.length(packed) != this.wordLength) {
+                throw new IllegalArgumentException("Word " + PackedWord.unpack(packed) + " does not have "
+                        + this.wordLength + " letters");
+            }
+            for (int p = 0; p < this.wordLength; p++) {
+                this.letters[p][w] = (byte) PackedWord.codeAt(packed, p);
+            }
+        }
+    }
+
+    /**
+     * Creates the fastest scorer available in this JVM.
+     *
+     * @param words the secret words; every word must have the same length.
+     * @return a vectorized scorer if the Vector API is present, a scalar one
+     * otherwise.
+     * @throws IllegalArgumentException if the words have different lengths.
+     */
+    public static BatchScorer of(WordList words) {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                return new VectorBatchScorer(words);
+            } catch (LinkageError e) {
+                Logger.getLogger(BatchScorer.class.getName()).log(Level.WARNING,
+                        "Vector API not usable, scoring one word at a time", e);
+            }
+        }
+        return new BatchScorer(words);
+    }
+
+    /**
+     * Scores a guess against every word.
+     *
+     * @param guess the packed guess, with the words' length.
+     * @param feedbacks receives the packed feedback against word i at index
+     * i; must hold at least {@link #size()} values.
+     */
+    public void score(long guess, int[] feedbacks) {
+        for (int w = 0; w < this.size; w++) {
+            feedbacks[w] = scoreOne(guess, w);
+        }
+    }
+
+    /**
+     * Returns the number of words.
+     *
+     * @return the number of secret words scored by every call.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of letters of every word.
+     *
+     * @return the word length.
+     */
+    public int wordLength() {
+        return this.wordLength;
+    }
+
+    /**
+     * Tells whether this scorer uses SIMD instructions.
+     *
+     * @return true for the Vector API implementation.
+     */
+    public boolean vectorized() {
+        return false;
+    }
+
+    /**
+     * Scores a guess against one word, like {@link Feedback#score(long, long)}
+     * but reading the word from the arrays.
+     */
+    final int scoreOne(long guess, int word) {
+        if (this.wordLength == 5) {
+            // The length of the game by default, unrolled.
+            return Feedback.score5(this.letters[0][word], this.letters[1][word], this.letters[2][word],
+                    this.letters[3][word], this.letters[4][word], PackedWord.codeAt(guess, 0),
+                    PackedWord.codeAt(guess, 1), PackedWord.codeAt(guess, 2), PackedWord.codeAt(guess, 3),
+                    PackedWord.codeAt(guess, 4));
+        }
+        long low = 0L; // 4-bit counters for codes 0-15
+        long high = 0L; // 4-bit counters for codes 16-26
+        int greens = 0;
+
+        for (int p = 0; p < this.wordLength; p++) {
+            int code = this.letters[p][word];
+            if (code == PackedWord.codeAt(guess, p)) {
+                greens |= 1 << p;
+            } else if (code >= 16) {
+                high += 1L << ((code - 16) << 2);
+            } else {
+                low += 1L << (code << 2);
+            }
+        }
+
+        int feedback = 0;
+        int weight = 1;
+        for (int p = 0; p < this.wordLength; p++, weight *= 3) {
+            if ((greens & (1 << p)) != 0) {
+                feedback += Feedback.GREEN * weight;
+                continue;
+            }
+            int code = PackedWord.codeAt(guess, p);
+            if (code >= 16) {
+                int shift = (code - 16) << 2;
+                if (((high >>> shift) & 0xF) != 0) {
+                    high -= 1L << shift;
+                    feedback += Feedback.YELLOW * weight;
+                }
+            } else {
+                int shift = code << 2;
+                if (((low >>> shift) & 0xF) != 0) {
+                    low -= 1L << shift;
+                    feedback += Feedback.YELLOW * weight;
+                }
+            }
+        }
+        return feedback;
+    }
+}
@@ -0,0 +1,273 @@
+package wordlegame;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * BoardRenderer - Draws the guess board and the game messages on the
+ * console.
+ *
+ * Everything the game prints goes to one preallocated output buffer, which is
+ * written and flushed once per turn, right before the game waits for the
+ * player. Every row of the board is encoded once, into a board buffer sized
+ * for the whole game, and only the new row is printed each turn: in color mode
+ * it replaces the line where the player typed the guess (moving the cursor up
+ * with an ANSI escape code), so the board grows in place. Without colors (for
+ * example when the output is piped to a file) no escape code is written and
+ * each row is followed by its pattern ("G" green, "Y" yellow, "-" grey).
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class BoardRenderer {
+
+    /**
+     * System property that disables the colors when set to false.
+     */
+    public static final String COLOR_PROPERTY = "wordle.color";
+
+    /**
+     * ANSI code for green (correct position and letter).
+     */
+    public static final String GREEN = "\033[32m";
+
+    /**
+     * ANSI code for yellow (correct letter, wrong position).
+     */
+    public static final String YELLOW = "\033[33m";
+
+    /**
+     * ANSI code for purple.
+     */
+    public static final String PURPLE = "\033[35m";
+
+    /**
+     * ANSI code for red.
+     */
+    public static final String RED = "\033[31m";
+
+    /**
+     * ANSI code to reset text formatting.
+     */
+    public static final String RESET = "\033[0m";
+
+    /**
+     * ANSI codes that move the cursor to the start of the previous line and
+     * clear it.
+     */
+    private static final String REPLACE_LINE = "\033[1A\r\033[2K";
+
+    /**
+     * Initial size of the output buffer; it is written out earlier if a turn
+     * prints more.
+     */
+    private static final int OUTPUT_BYTES = 8 * 1024;
+
+    /**
+     * Where the output goes.
+     */
+    private final PrintStream out;
+
+    /**
+     * Encodes the text with the charset of the console.
+     */
+    private final CharsetEncoder encoder;
+
+    /**
+     * Output of the current turn, not written yet.
+     */
+    private final ByteBuffer pending;
+
+    /**
+     * Encoded rows of the board, one after the other.
+     */
+    private final ByteBuffer board;
+
+    /**
+     * Whether ANSI codes are written.
+     */
+    private final boolean color;
+
+    /**
+     * Creates a renderer.
+     *
+     * @param out where the output goes.
+     * @param wordLength the number of letters of every guess.
+     * @param maxTries the number of rows of the board.
+     * @param color whether to write ANSI colors and cursor codes.
+     */
+    public BoardRenderer(PrintStream out, int wordLength, int maxTries, boolean color) {
+        this.out = out;
+        this.encoder = out.charset().newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.color = color;
+        this.pending = ByteBuffer.allocate(OUTPUT_BYTES);
+        // Worst case per letter: a color code and a letter of up to 4 bytes.
+        int rowBytes = wordLength * (GREEN.length() + 4) + RESET.length() + wordLength + 2;
+        this.board = ByteBuffer.allocate(maxTries * rowBytes);
+    }
+
+    /**
+     * Creates a renderer for {@code System.out}, with colors unless there is
+     * no console, the {@code NO_COLOR} environment variable is set, the
+     * terminal is "dumb" or the {@value #COLOR_PROPERTY} system property is
+     * false.
+     *
+     * @param wordLength the number of letters of every guess.
+     * @param maxTries the number of rows of the board.
+     * @return the renderer.
+     */
+    public static BoardRenderer console(int wordLength, int maxTries) {
+        boolean color = System.console() != null
+                && System.getenv("NO_COLOR") == null
+                && !"dumb".equals(System.getenv("TERM"))
+                && Boolean.parseBoolean(System.getProperty(COLOR_PROPERTY, "true"));
+        return new BoardRenderer(System.out, wordLength, maxTries, color);
+    }
+
+    /**
+     * Tells whether ANSI codes are written.
+     *
+     * @return true in color mode.
+     */
+    public boolean color() {
+        return this.color;
+    }
+
+    /**
+     * Adds text to the output.
+     *
+     * @param text the text.
+     * @return this renderer.
+     */
+    public BoardRenderer text(CharSequence text) {
+        encode(this.pending, text);
+        return this;
+    }
+
+    /**
+     * Adds text in a color to the output; in plain mode only the text.
+     *
+     * @param ansi the ANSI color code, for example {@link #RED}.
+     * @param text the text.
+     * @return this renderer.
+     */
+    public BoardRenderer text(String ansi, CharSequence text) {
+        if (this.color) {
+            encode(this.pending, ansi);
+        }
+        encode(this.pending, text);
+        if (this.color) {
+            encode(this.pending, RESET);
+        }
+        return this;
+    }
+
+    /**
+     * Adds an error message on its own line, in red in color mode.
+     *
+     * @param message the message.
+     * @return this renderer.
+     */
+    public BoardRenderer error(CharSequence message) {
+        return text(RED, message).text("\n");
+    }
+
+    /**
+     * Adds a guess to the board and prints its row. In color mode the row
+     * replaces the line where the player typed the guess.
+     *
+     * @param guess the guess, in uppercase.
+     * @param feedback its packed feedback.
+     * @return this renderer.
+     */
+    public BoardRenderer row(CharSequence guess, int feedback) {
+        int start = this.board.position();
+        if (this.color) {
+            for (int i = 0; i < guess.length(); i++) {
+                switch (Feedback.at(feedback, i)) {
+                    case Feedback.GREEN:
+                        encode(this.board, GREEN);
+                        break;
+                    case Feedback.YELLOW:
+                        encode(this.board, YELLOW);
+                        break;
+                    default:
+                        encode(this.board, RESET);
+                }
+                encode(this.board, guess.subSequence(i, i + 1));
+            }
+            encode(this.board, RESET);
+        } else {
+            encode(this.board, guess);
+            encode(this.board, " ");
+            encode(this.board, Feedback.pattern(feedback, guess.length()));
+        }
+        encode(this.board, "\n");
+
+        if (this.color) {
+            encode(this.pending, REPLACE_LINE);
+        }
+        put(this.board.array(), start, this.board.position() - start);
+        return this;
+    }
+
+    /**
+     * Prints every row of the board again, for the summary at the end of a
+     * game.
+     *
+     * @return this renderer.
+     */
+    public BoardRenderer board() {
+        put(this.board.array(), 0, this.board.position());
+        return this;
+    }
+
+    /**
+     * Writes the pending output and flushes the console: once per turn,
+     * before waiting for the player.
+     */
+    public void flush() {
+        long start = Metrics.start();
+        write();
+        this.out.flush();
+        Metrics.global().stop(Metrics.Phase.RENDER, start);
+    }
+
+    private void write() {
+        this.out.write(this.pending.array(), 0, this.pending.position());
+        this.pending.clear();
+    }
+
+    private void put(byte[] bytes, int offset, int length) {
+        if (this.pending.remaining() < length) {
+            write();
+        }
+        if (this.pending.remaining() < length) {
+            this.out.write(bytes, offset, length);
+        } else {
+            this.pending.put(bytes, offset, length);
+        }
+    }
+
+    private void encode(ByteBuffer target, CharSequence text) {
+        CharBuffer chars = CharBuffer.wrap(text);
+        this.encoder.reset();
+        while (true) {
+            CoderResult result = this.encoder.encode(chars, target, true);
+            if (result.isOverflow()) {
+                if (target != this.pending) {
+                    throw new IllegalStateException("The board is full");
+                }
+                write(); // a long turn: write what is ready and keep going
+                continue;
+            }
+            break;
+        }
+        this.encoder.flush(target);
+    }
+}
@@ -0,0 +1,227 @@
+package wordlegame;
+
+/**
+ * CandidateIndex - Bitset index of a dictionary to find which words are
+ * still possible after some guesses.
+ *
+ * A set of candidate words is a {@code long[]} with one bit per dictionary
+ * word. The index keeps one such bitset per (position, letter) pair and one
+ * per (letter, minimum count) pair, so every green, yellow or grey letter of
+ * a guess becomes an AND (or AND NOT) of whole bitsets: filtering costs about
+ * (dictionary size / 64) operations per constraint, whatever the size of the
+ * dictionary.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class CandidateIndex {
+
+    /**
+     * The indexed dictionary.
+     */
+    private final WordList words;
+
+    /**
+     * Number of letters of every word.
+     */
+    private final int wordLength;
+
+    /**
+     * Number of longs in a bitset.
+     */
+    private final int blocks;
+
+    /**
+     * Words with letter c at position p: {@code atPosition[p][c]}.
+     */
+    private final long[][][] atPosition;
+
+    /**
+     * Words with at least k + 1 copies of letter c: {@code atLeast[c][k]}.
+     */
+    private final long[][][] atLeast;
+
+    /**
+     * Builds the index of a dictionary. Every word must have the same
+     * length.
+     *
+     * @param words the dictionary.
+     * @param wordLength the number of letters of every word.
+     * @throws IllegalArgumentException if a word has another length.
+     */
+    public CandidateIndex(WordList words, int wordLength) {
+        this.words = words;
+        this.wordLength = wordLength;
+        this.blocks = (words.size() + 63) >>> 6;
+        this.atPosition = new long[wordLength][Letters.COUNT][];
+        this.atLeast = new long[Letters.COUNT][wordLength][];
+
+        int[] counts = new int[Letters.COUNT];
+        for (int w = 0; w < words.size(); w++) {
+            long packed = words.packedAt(w);
+            if (PackedWord.length(packed) != wordLength) {
+                throw new IllegalArgumentException("Word " + PackedWord.unpack(packed) + " does not have "
+                        + wordLength + " letters");
+            }
+            long bit = 1L << (w & 63);
+            int block = w >>> 6;
+            for (int p = 0; p < wordLength; p++) {
+                int code = PackedWord.codeAt(packed, p);
+                bitset(this.atPosition[p], code)[block] |= bit;
+                bitset(this.atLeast[code], counts[code])[block] |= bit;
+                counts[code]++;
+            }
+            for (int p = 0; p < wordLength; p++) {
+                counts[PackedWord.codeAt(packed, p)] = 0;
+            }
+        }
+    }
+
+    /**
+     * Returns a new candidate set with every word of the dictionary.
+     *
+     * @return the bitset of all the words.
+     */
+    public long[] all() {
+        long[] candidates = new long[this.blocks];
+        int size = this.words.size();
+        for (int i = 0; i < this.blocks; i++) {
+            int bits = Math.min(64, size - (i << 6));
+            candidates[i] = bits == 64 ? -1L : (1L << bits) - 1;
+        }
+        return candidates;
+    }
+
+    /**
+     * Removes from a candidate set the words that would not have given this
+     * feedback to this guess.
+     *
+     * @param candidates the candidate set; modified in place.
+     * @param guess the guess, with the index word length.
+     * @param feedback the packed feedback of the guess (see {@link Feedback}).
+     */
+    public void filter(long[] candidates, CharSequence guess, int feedback) {
+        int[] found = new int[Letters.COUNT]; // green or yellow copies of each letter
+        boolean[] grey = new boolean[Letters.COUNT]; // the letter also came back grey
+
+        for (int p = 0; p < this.wordLength; p++) {
+            int code = Letters.code(guess.charAt(p));
+            if (code < 0) {
+                clear(candidates); // no dictionary word has this character
+                return;
+            }
+            long[] here = this.atPosition[p][code];
+            int state = Feedback.at(feedback, p);
+            if (state == Feedback.GREEN) {
+                and(candidates, here);
+            } else {
+                andNot(candidates, here);
+            }
+            if (state == Feedback.GREY) {
+                grey[code] = true;
+            } else {
+                found[code]++;
+            }
+        }
+
+        for (int code = 0; code < Letters.COUNT; code++) {
+            if (found[code] > 0) {
+                // At least that many copies...
+                and(candidates, this.atLeast[code][found[code] - 1]);
+            }
+            if (grey[code]) {
+                // ...and, if one came back grey, exactly that many.
+                if (found[code] < this.wordLength) {
+                    andNot(candidates, this.atLeast[code][found[code]]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the words of a candidate set.
+     *
+     * @param candidates the candidate set.
+     * @return the number of words.
+     */
+    public static int count(long[] candidates) {
+        int count = 0;
+        for (long block : candidates) {
+            count += Long.bitCount(block);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the first words of a candidate set.
+     *
+     * @param candidates the candidate set.
+     * @param limit the maximum number of words.
+     * @return the words, in dictionary order.
+     */
+    public String[] examples(long[] candidates, int limit) {
+        String[] examples = new String[Math.min(limit, count(candidates))];
+        int found = 0;
+        for (int i = 0; i < candidates.length && found < examples.length; i++) {
+            long block = candidates[i];
+            while (block != 0 && found < examples.length) {
+                examples[found++] = this.words.wordAt((i << 6) + Long.numberOfTrailingZeros(block));
+                block &= block - 1;
+            }
+        }
+        return examples;
+    }
+
+    /**
+     * Returns the indexed dictionary.
+     *
+     * @return the words.
+     */
+    public WordList words() {
+        return this.words;
+    }
+
+    /**
+     * Returns the number of letters of every word.
+     *
+     * @return the word length.
+     */
+    public int wordLength() {
+        return this.wordLength;
+    }
+
+    /**
+     * Returns a bitset of a table, creating it on first use. Letters that
+     * never appear keep a null bitset, read as empty.
+     */
+    private long[] bitset(long[][] table, int index) {
+        if (table[index] == null) {
+            table[index] = new long[this.blocks];
+        }
+        return table[index];
+    }
+
+    private static void and(long[] target, long[] mask) {
+        if (mask == null) {
+            clear(target);
+            return;
+        }
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= mask[i];
+        }
+    }
+
+    private static void andNot(long[] target, long[] mask) {
+        if (mask == null) {
+            return;
+        }
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= ~mask[i];
+        }
+    }
+
+    private static void clear(long[] target) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] = 0L;
+        }
+    }
+}
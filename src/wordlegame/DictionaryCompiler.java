@@ -0,0 +1,149 @@
+package wordlegame;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * DictionaryCompiler - Converts a text word list into the binary dictionary
+ * format read by {@link MappedDictionary}.
+ *
+ * Words are uppercased, anything that is not made of exactly the requested
+ * number of letters (A-Z, Ñ) is dropped, and duplicates are removed. The
+ * result is written sorted, one packed {@code long} per word, after a small
+ * header:
+ *
+ * <pre>
+ * int  MAGIC ("WRDL")
+ * int  VERSION
+ * int  word length
+ * int  number of words
+ * long packed words...
+ * </pre>
+ *
+ * Usage: {@code java wordlegame.DictionaryCompiler secretWords5.txt secretWords5.dict 5}
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class DictionaryCompiler {
+
+    /**
+     * File signature, "WRDL" in ASCII.
+     */
+    static final int MAGIC = 0x5752444C;
+
+    /**
+     * Version of the binary format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size in bytes of the header that precedes the words.
+     */
+    static final int HEADER_BYTES = 16;
+
+    private DictionaryCompiler() {
+    }
+
+    /**
+     * Command line entry point.
+     *
+     * @param args source text file, target binary file and, optionally, the
+     * word length (5 by default).
+     * @throws IOException if a file cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: DictionaryCompiler <fichero.txt> <fichero.dict> [longitud]");
+            return;
+        }
+        int wordLength = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int words = compile(Path.of(args[0]), Path.of(args[1]), wordLength);
+        System.out.printf("%d palabras de %d letras escritas en %s\n", words, wordLength, args[1]);
+    }
+
+    /**
+     * Compiles a text word list into a binary dictionary. Words are
+     * separated by any whitespace. The target is written to a temporary file
+     * first and then moved into place, so readers never see a partial file.
+     *
+     * @param source the text file (UTF-8).
+     * @param target the binary file to create or replace.
+     * @param wordLength the number of letters every word must have.
+     * @return the number of words written.
+     * @throws IOException if the source cannot be read or the target cannot
+     * be written.
+     */
+    public static int compile(Path source, Path target, int wordLength) throws IOException {
+        long[] words = sortedWords(source, wordLength);
+
+        Path parent = target.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + Long.BYTES * words.length);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(wordLength).putInt(words.length);
+            for (long word : words) {
+                buffer.putLong(word);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return words.length;
+    }
+
+    /**
+     * Reads a text word list and returns its normalized words.
+     *
+     * @param source the text file (UTF-8).
+     * @param wordLength the number of letters every word must have.
+     * @return the packed words, sorted and without duplicates.
+     * @throws IOException if the file cannot be read.
+     */
+    static long[] sortedWords(Path source, int wordLength) throws IOException {
+        long[] words = new long[1024];
+        int count = 0;
+
+        try (BufferedReader br = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                int i = 0;
+                int end = line.length();
+                while (i < end) {
+                    // Skip the whitespace before the next word.
+                    while (i < end && Character.isWhitespace(line.charAt(i))) {
+                        i++;
+                    }
+                    int start = i;
+                    while (i < end && !Character.isWhitespace(line.charAt(i))) {
+                        i++;
+                    }
+                    if (i - start != wordLength) {
+                        continue; // wrong length or empty: never a valid word
+                    }
+                    long packed = PackedWord.pack(line, start, i);
+                    if (packed != PackedWord.INVALID) {
+                        if (count == words.length) {
+                            words = Arrays.copyOf(words, count * 2);
+                        }
+                        words[count++] = packed;
+                    }
+                }
+            }
+        }
+        return PackedWordList.sortedUnique(words, count);
+    }
+}
@@ -0,0 +1,211 @@
+package wordlegame;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * DictionaryShards - The dictionaries of every word length of a word list,
+ * loaded on first use.
+ *
+ * A word list such as {@code secretWords5.txt} may mix words of several
+ * lengths. Each length is a separate shard: the words of that length only,
+ * compiled and memory-mapped by {@link MappedDictionary#openCompiled(Path, int)}
+ * with the set used to validate the guesses and the scheduler of the secret
+ * words. A shard is only built when a game of its length is created, so the
+ * lengths nobody plays cost nothing, and the shards are kept in a small
+ * least-recently-used cache: when it is full, the shard unused for the longest
+ * time is dropped (games already created with it keep working) and is loaded
+ * again, from its compiled file, if it is needed later. A shard is loaded
+ * outside the lock of the cache: games of other lengths are not held up,
+ * and the callers asking for the same length wait for that single load.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class DictionaryShards {
+
+    /**
+     * Shortest word length of a game.
+     */
+    public static final int MIN_LENGTH = 4;
+
+    /**
+     * Longest word length of a game.
+     */
+    public static final int MAX_LENGTH = 8;
+
+    /**
+     * Shards kept loaded when no capacity is given.
+     */
+    public static final int DEFAULT_CAPACITY = 3;
+
+    /**
+     * The words of one length, ready to play.
+     */
+    public static final class Shard {
+
+        private final MappedDictionary words;
+        private final GuessValidator validator;
+        private final SecretScheduler secrets;
+
+        private Shard(MappedDictionary words) {
+            this.words = words;
+            this.validator = new GuessValidator(words.wordLength(), PackedWordSet.of(words));
+            this.secrets = new SecretScheduler(words);
+        }
+
+        /**
+         * Returns the number of letters of the words.
+         *
+         * @return the word length.
+         */
+        public int wordLength() {
+            return this.words.wordLength();
+        }
+
+        /**
+         * Returns the words of this length.
+         *
+         * @return the mapped dictionary.
+         */
+        public MappedDictionary words() {
+            return this.words;
+        }
+
+        /**
+         * Returns the validator of the guesses, which only accepts these
+         * words.
+         *
+         * @return the validator.
+         */
+        public GuessValidator validator() {
+            return this.validator;
+        }
+
+        /**
+         * Returns the scheduler of the secret words of this length.
+         *
+         * @return the scheduler.
+         */
+        public SecretScheduler secrets() {
+            return this.secrets;
+        }
+    }
+
+    /**
+     * The text word list.
+     */
+    private final Path source;
+
+    /**
+     * Loaded (or loading) shards by word length, from the least to the most
+     * recently used. Guarded by itself.
+     */
+    private final Map<Integer, FutureTask<Shard>> shards;
+
+    /**
+     * Creates the shards of a word list with the default capacity.
+     *
+     * @param source the text word list.
+     */
+    public DictionaryShards(Path source) {
+        this(source, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates the shards of a word list. Nothing is read until a shard is
+     * requested.
+     *
+     * @param source the text word list.
+     * @param capacity the maximum number of shards kept loaded.
+     */
+    public DictionaryShards(Path source, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be at least 1");
+        }
+        this.source = source;
+        this.shards = new LinkedHashMap<Integer, FutureTask<Shard>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, FutureTask<Shard>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Tells whether games of a word length can be played.
+     *
+     * @param wordLength the number of letters.
+     * @return true from {@value #MIN_LENGTH} to {@value #MAX_LENGTH}.
+     */
+    public static boolean isSupported(int wordLength) {
+        return wordLength >= MIN_LENGTH && wordLength <= MAX_LENGTH;
+    }
+
+    /**
+     * Returns the shard of a word length, loading it (and compiling it if the
+     * word list changed) on first use. A load that fails is not cached, so
+     * the next call tries again.
+     *
+     * @param wordLength the number of letters.
+     * @return the shard.
+     * @throws IllegalArgumentException if the length is not supported.
+     * @throws IOException if the word list cannot be read or has no words of
+     * that length.
+     */
+    public Shard shard(int wordLength) throws IOException {
+        if (!isSupported(wordLength)) {
+            throw new IllegalArgumentException("Word length must be between " + MIN_LENGTH + " and " + MAX_LENGTH
+                    + ": " + wordLength);
+        }
+        FutureTask<Shard> load;
+        boolean first;
+        synchronized (this.shards) {
+            load = this.shards.get(wordLength);
+            first = load == null;
+            if (first) {
+                load = new FutureTask<>(() -> new Shard(MappedDictionary.openCompiled(this.source, wordLength)));
+                this.shards.put(wordLength, load);
+            }
+        }
+        if (first) {
+            load.run(); // on the caller's thread, without the lock
+        }
+        try {
+            return load.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading the words of " + wordLength + " letters");
+        } catch (ExecutionException e) {
+            synchronized (this.shards) {
+                this.shards.remove(wordLength, load);
+            }
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Returns the number of shards loaded now.
+     *
+     * @return the count, at most the capacity.
+     */
+    public int loaded() {
+        synchronized (this.shards) {
+            return this.shards.size();
+        }
+    }
+}
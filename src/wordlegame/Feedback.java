@@ -0,0 +1,318 @@
+package wordlegame;
+
+/**
+ * Feedback - Scores a guess against the secret word.
+ *
+ * The result is packed as a base-3 number: the digit for position i (weight
+ * 3^i) is {@link #GREY}, {@link #YELLOW} or {@link #GREEN}. A 5-letter result
+ * is always below 243, so it also fits in a single byte. Scoring does not
+ * allocate and counts letters in linear time, so it can be called millions of
+ * times by simulators and solvers. Packed 5-letter words, the length of the
+ * default game, take an unrolled path of their own.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class Feedback {
+
+    /**
+     * Letter not present in the secret word (or already used up).
+     */
+    public static final int GREY = 0;
+
+    /**
+     * Letter present in the secret word but in another position.
+     */
+    public static final int YELLOW = 1;
+
+    /**
+     * Correct letter in the correct position.
+     */
+    public static final int GREEN = 2;
+
+    /**
+     * Longest word that can be scored (every letter count fits in 4 bits).
+     */
+    public static final int MAX_LENGTH = 12;
+
+    /**
+     * Powers of three used to place and read the digit of each position.
+     */
+    private static final int[] POW3 = new int[MAX_LENGTH + 1];
+
+    /**
+     * Character used by {@link #pattern(int, int)} for each state.
+     */
+    private static final char[] MARKS = {'-', 'Y', 'G'};
+
+    static {
+        POW3[0] = 1;
+        for (int i = 1; i < POW3.length; i++) {
+            POW3[i] = POW3[i - 1] * 3;
+        }
+    }
+
+    private Feedback() {
+    }
+
+    /**
+     * Scores a guess against the secret word. Both words must have the same
+     * length and should use the same case (the game always uses uppercase).
+     *
+     * Greens are marked first; then every remaining guess letter is yellow
+     * while the secret still has unmatched copies of it, from left to right.
+     *
+     * @param secret the secret word.
+     * @param guess the word entered by the player.
+     * @return the packed feedback.
+     * @throws IllegalArgumentException if the lengths differ or exceed
+     * {@link #MAX_LENGTH}.
+     */
+    public static int score(CharSequence secret, CharSequence guess) {
+        int length = secret.length();
+        if (guess.length() != length || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Cannot score \"" + guess + "\" against a word of length " + length);
+        }
+
+        // One 4-bit counter per letter code for the secret letters that are not green.
+        long low = 0L; // codes 0-15
+        long high = 0L; // codes 16-26
+        int greens = 0; // bit i set when position i is green
+
+        for (int i = 0; i < length; i++) {
+            char secretChar = secret.charAt(i);
+            if (secretChar == guess.charAt(i)) {
+                greens |= 1 << i;
+            } else {
+                int code = Letters.code(secretChar);
+                if (code >= 16) {
+                    high += 1L << ((code - 16) << 2);
+                } else if (code >= 0) {
+                    low += 1L << (code << 2);
+                }
+            }
+        }
+
+        int feedback = 0;
+        for (int i = 0; i < length; i++) {
+            if ((greens & (1 << i)) != 0) {
+                feedback += GREEN * POW3[i];
+                continue;
+            }
+            int code = Letters.code(guess.charAt(i));
+            if (code >= 16) {
+                int shift = (code - 16) << 2;
+                if (((high >>> shift) & 0xF) != 0) {
+                    high -= 1L << shift;
+                    feedback += YELLOW * POW3[i];
+                }
+            } else if (code >= 0) {
+                int shift = code << 2;
+                if (((low >>> shift) & 0xF) != 0) {
+                    low -= 1L << shift;
+                    feedback += YELLOW * POW3[i];
+                }
+            }
+        }
+        return feedback;
+    }
+
+    /**
+     * Scores a guess against the secret word, both given as packed words
+     * (see {@link PackedWord}). Gives the same result as
+     * {@link #score(CharSequence, CharSequence)} without decoding any
+     * letter to a char.
+     *
+     * @param secret the packed secret word.
+     * @param guess the packed guess, with the same length.
+     * @return the packed feedback.
+     */
+    public static int score(long secret, long guess) {
+        int length = PackedWord.length(secret);
+        if (length == 5) {
+            return score5(secret, guess); // the length of the game by default
+        }
+        long low = 0L; // 4-bit counters for codes 0-15
+        long high = 0L; // 4-bit counters for codes 16-26
+        int greens = 0;
+
+        for (int i = 0; i < length; i++) {
+            int code = PackedWord.codeAt(secret, i);
+            if (code == PackedWord.codeAt(guess, i)) {
+                greens |= 1 << i;
+            } else if (code >= 16) {
+                high += 1L << ((code - 16) << 2);
+            } else {
+                low += 1L << (code << 2);
+            }
+        }
+
+        int feedback = 0;
+        for (int i = 0; i < length; i++) {
+            if ((greens & (1 << i)) != 0) {
+                feedback += GREEN * POW3[i];
+                continue;
+            }
+            int code = PackedWord.codeAt(guess, i);
+            if (code >= 16) {
+                int shift = (code - 16) << 2;
+                if (((high >>> shift) & 0xF) != 0) {
+                    high -= 1L << shift;
+                    feedback += YELLOW * POW3[i];
+                }
+            } else {
+                int shift = code << 2;
+                if (((low >>> shift) & 0xF) != 0) {
+                    low -= 1L << shift;
+                    feedback += YELLOW * POW3[i];
+                }
+            }
+        }
+        return feedback;
+    }
+
+    /**
+     * Scores two packed 5-letter words (see {@link #score5(int, int, int, int,
+     * int, int, int, int, int, int)}).
+     */
+    static int score5(long secret, long guess) {
+        return score5((int) secret & 0x1F, (int) (secret >>> 5) & 0x1F, (int) (secret >>> 10) & 0x1F,
+                (int) (secret >>> 15) & 0x1F, (int) (secret >>> 20) & 0x1F,
+                (int) guess & 0x1F, (int) (guess >>> 5) & 0x1F, (int) (guess >>> 10) & 0x1F,
+                (int) (guess >>> 15) & 0x1F, (int) (guess >>> 20) & 0x1F);
+    }
+
+    /**
+     * Scores two 5-letter words given letter by letter, unrolled: instead of
+     * counting the letters, every guess letter that is not green takes the
+     * first secret position with the same letter that is neither green nor
+     * already taken, which gives the same yellows. Everything stays in
+     * registers, without loops or table lookups. The letters only need the
+     * same encoding on both sides (packed fields or {@link Letters} codes).
+     */
+    static int score5(int s0, int s1, int s2, int s3, int s4, int g0, int g1, int g2, int g3, int g4) {
+        // Bit i set while secret position i is not green and not taken by a yellow.
+        int open = (s0 != g0 ? 1 : 0) | (s1 != g1 ? 2 : 0) | (s2 != g2 ? 4 : 0) | (s3 != g3 ? 8 : 0)
+                | (s4 != g4 ? 16 : 0);
+        int feedback = 0;
+        int left = open;
+        int taken;
+        if ((open & 1) == 0) {
+            feedback += GREEN;
+        } else if ((taken = take(left, g0, s0, s1, s2, s3, s4)) != 0) {
+            left ^= taken;
+            feedback += YELLOW;
+        }
+        if ((open & 2) == 0) {
+            feedback += GREEN * 3;
+        } else if ((taken = take(left, g1, s0, s1, s2, s3, s4)) != 0) {
+            left ^= taken;
+            feedback += YELLOW * 3;
+        }
+        if ((open & 4) == 0) {
+            feedback += GREEN * 9;
+        } else if ((taken = take(left, g2, s0, s1, s2, s3, s4)) != 0) {
+            left ^= taken;
+            feedback += YELLOW * 9;
+        }
+        if ((open & 8) == 0) {
+            feedback += GREEN * 27;
+        } else if ((taken = take(left, g3, s0, s1, s2, s3, s4)) != 0) {
+            left ^= taken;
+            feedback += YELLOW * 27;
+        }
+        if ((open & 16) == 0) {
+            feedback += GREEN * 81;
+        } else if (take(left, g4, s0, s1, s2, s3, s4) != 0) {
+            feedback += YELLOW * 81;
+        }
+        return feedback;
+    }
+
+    /**
+     * Returns the bit of the first position among {@code left} whose secret
+     * letter is {@code letter}, or 0 if there is none.
+     */
+    private static int take(int left, int letter, int s0, int s1, int s2, int s3, int s4) {
+        int matches = left & ((letter == s0 ? 1 : 0) | (letter == s1 ? 2 : 0) | (letter == s2 ? 4 : 0)
+                | (letter == s3 ? 8 : 0) | (letter == s4 ? 16 : 0));
+        return matches & -matches;
+    }
+
+    /**
+     * Reads the state of one position from a packed feedback.
+     *
+     * @param feedback the packed feedback.
+     * @param position the letter position, starting at 0.
+     * @return {@link #GREY}, {@link #YELLOW} or {@link #GREEN}.
+     */
+    public static int at(int feedback, int position) {
+        return (feedback / POW3[position]) % 3;
+    }
+
+    /**
+     * Describes a packed feedback as text, one character per position: 'G'
+     * for green, 'Y' for yellow and '-' for grey.
+     *
+     * @param feedback the packed feedback.
+     * @param length the word length.
+     * @return the pattern, for example "GY--G".
+     */
+    public static String pattern(int feedback, int length) {
+        char[] marks = new char[length];
+        for (int i = 0; i < length; i++) {
+            marks[i] = MARKS[at(feedback, i)];
+        }
+        return new String(marks);
+    }
+
+    /**
+     * Converts a pattern written by {@link #pattern(int, int)} back to a
+     * packed feedback.
+     *
+     * @param pattern the pattern, for example "GY--G".
+     * @return the packed feedback.
+     * @throws IllegalArgumentException if the pattern contains other
+     * characters or is too long.
+     */
+    public static int parsePattern(CharSequence pattern) {
+        if (pattern.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("Pattern too long: " + pattern);
+        }
+        int feedback = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            switch (pattern.charAt(i)) {
+                case 'G':
+                    feedback += GREEN * POW3[i];
+                    break;
+                case 'Y':
+                    feedback += YELLOW * POW3[i];
+                    break;
+                case '-':
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid pattern: " + pattern);
+            }
+        }
+        return feedback;
+    }
+
+    /**
+     * Returns the feedback of a guess that matches the secret word.
+     *
+     * @param length the word length.
+     * @return the packed feedback with every position green.
+     */
+    public static int allGreen(int length) {
+        return POW3[length] - 1;
+    }
+
+    /**
+     * Returns the number of different feedbacks for a word length.
+     *
+     * @param length the word length.
+     * @return 3 raised to the word length.
+     */
+    public static int patterns(int length) {
+        return POW3[length];
+    }
+}
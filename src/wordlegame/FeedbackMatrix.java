@@ -0,0 +1,350 @@
+package wordlegame;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * FeedbackMatrix - Feedback of every (guess, secret) pair of a dictionary,
+ * computed once and kept on disk.
+ *
+ * The matrix holds one byte per pair (row = guess, column = secret), so it is
+ * limited to words of up to 5 letters (3^5 = 243 feedbacks). It is built in
+ * parallel on the fork-join pool (each row with a {@link BatchScorer}), each
+ * task writing its own rows straight to the file, and read back
+ * memory-mapped, outside the heap, so a lookup is a single read. The header
+ * stores a hash of the dictionary: when the word list changes the hash no
+ * longer matches and {@link #openOrBuild} rebuilds the file. The file grows
+ * with the square of the dictionary (about 90 GB for 300,000 words), so the
+ * game only builds it up to {@link #DEFAULT_MAX_BYTES} unless it is asked to
+ * with {@code --matrix}; above that the solver scores on the fly.
+ *
+ * <pre>
+ * int  MAGIC ("WFBM")
+ * int  VERSION
+ * int  word length
+ * int  number of words (n)
+ * long dictionary hash
+ * byte feedback[n][n]
+ * </pre>
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class FeedbackMatrix {
+
+    /**
+     * Longest word whose feedback fits in a byte.
+     */
+    public static final int MAX_WORD_LENGTH = 5;
+
+    /**
+     * Largest matrix built without being asked explicitly: 256 MB, a
+     * dictionary of about 16,000 words.
+     */
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    /**
+     * File signature, "WFBM" in ASCII.
+     */
+    private static final int MAGIC = 0x5746424D;
+
+    /**
+     * Version of the file format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Size in bytes of the header that precedes the matrix.
+     */
+    private static final int HEADER_BYTES = 24;
+
+    /**
+     * Rows computed by a single fork-join task before it stops splitting.
+     */
+    private static final int ROWS_PER_TASK = 32;
+
+    /**
+     * Mapped pieces of the matrix; each one holds {@link #rowsPerSegment}
+     * whole rows (a single mapping cannot exceed 2 GB).
+     */
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * Number of rows in every mapped piece.
+     */
+    private final int rowsPerSegment;
+
+    /**
+     * Number of words (rows and columns).
+     */
+    private final int size;
+
+    /**
+     * Hash of the dictionary the matrix was built from.
+     */
+    private final long hash;
+
+    private FeedbackMatrix(MappedByteBuffer[] segments, int rowsPerSegment, int size, long hash) {
+        this.segments = segments;
+        this.rowsPerSegment = rowsPerSegment;
+        this.size = size;
+        this.hash = hash;
+    }
+
+    /**
+     * Maps the matrix of a dictionary, building it first if the file is
+     * missing or was built from another word list.
+     *
+     * @param words the dictionary.
+     * @param file the matrix file.
+     * @return the mapped matrix.
+     * @throws IOException if the file cannot be read or written.
+     * @throws IllegalArgumentException if the words are longer than
+     * {@link #MAX_WORD_LENGTH} letters.
+     */
+    public static FeedbackMatrix openOrBuild(WordList words, Path file) throws IOException {
+        long hash = hash(words);
+        if (Files.exists(file)) {
+            try {
+                FeedbackMatrix matrix = open(file);
+                if (matrix.hash == hash && matrix.size == words.size()) {
+                    return matrix;
+                }
+            } catch (IOException e) {
+                // Damaged or old format: build it again.
+            }
+        }
+        build(words, file);
+        return open(file);
+    }
+
+    /**
+     * Maps the matrix of a dictionary, building it first if needed, as long
+     * as it can hold the words and its file is not larger than a limit.
+     *
+     * @param words the dictionary.
+     * @param file the matrix file.
+     * @param maxBytes the largest file accepted, for example
+     * {@link #DEFAULT_MAX_BYTES}.
+     * @return the mapped matrix, or null if the words are longer than
+     * {@link #MAX_WORD_LENGTH} letters or the file would be larger than
+     * {@code maxBytes}.
+     * @throws IOException if the file cannot be read or written.
+     */
+    public static FeedbackMatrix openOrBuild(WordList words, Path file, long maxBytes) throws IOException {
+        if (words.size() == 0 || PackedWord.length(words.packedAt(0)) > MAX_WORD_LENGTH
+                || bytes(words.size()) > maxBytes) {
+            return null;
+        }
+        return openOrBuild(words, file);
+    }
+
+    /**
+     * Returns the size of the matrix file of a dictionary.
+     *
+     * @param words the number of words.
+     * @return the size in bytes, header included.
+     */
+    public static long bytes(int words) {
+        return HEADER_BYTES + (long) words * words;
+    }
+
+    /**
+     * Computes the matrix of a dictionary and writes it to a file, replacing
+     * it only once it is complete.
+     *
+     * @param words the dictionary; every word must have the same length.
+     * @param file the matrix file.
+     * @throws IOException if the file cannot be written.
+     * @throws IllegalArgumentException if the words are longer than
+     * {@link #MAX_WORD_LENGTH} letters.
+     */
+    public static void build(WordList words, Path file) throws IOException {
+        int n = words.size();
+        BatchScorer scorer = BatchScorer.of(words);
+        long[] packed = new long[n];
+        for (int i = 0; i < n; i++) {
+            packed[i] = words.packedAt(i);
+        }
+        int wordLength = scorer.wordLength();
+        if (wordLength > MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("The feedback matrix supports words of up to " + MAX_WORD_LENGTH
+                    + " letters");
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putInt(wordLength).putInt(n).putLong(hash(words)).flip();
+            writeFully(channel, header, 0);
+            try {
+                ForkJoinPool.commonPool().invoke(new RowsTask(scorer, packed, channel, 0, n));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps a matrix file.
+     *
+     * @param file the matrix file.
+     * @return the mapped matrix.
+     * @throws IOException if the file cannot be read or is not a matrix.
+     */
+    public static FeedbackMatrix open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            if (channel.read(header, 0) != HEADER_BYTES) {
+                throw new IOException("Not a feedback matrix: " + file);
+            }
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a feedback matrix: " + file);
+            }
+            header.getInt(); // word length
+            int n = header.getInt();
+            long hash = header.getLong();
+            if (channel.size() != HEADER_BYTES + (long) n * n) {
+                throw new IOException("Truncated feedback matrix: " + file);
+            }
+
+            int rowsPerSegment = n == 0 ? 1 : Math.max(1, Integer.MAX_VALUE / n);
+            int count = n == 0 ? 0 : (n + rowsPerSegment - 1) / rowsPerSegment;
+            MappedByteBuffer[] segments = new MappedByteBuffer[count];
+            for (int s = 0; s < count; s++) {
+                long firstRow = (long) s * rowsPerSegment;
+                long rows = Math.min(rowsPerSegment, n - firstRow);
+                segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + firstRow * n, rows * n);
+            }
+            return new FeedbackMatrix(segments, rowsPerSegment, n, hash);
+        }
+    }
+
+    /**
+     * Hashes the words of a dictionary, in order, to tell whether a matrix
+     * was built from it.
+     *
+     * @param words the dictionary.
+     * @return a 64-bit hash.
+     */
+    public static long hash(WordList words) {
+        long hash = 0xCBF29CE484222325L ^ words.size();
+        for (int i = 0; i < words.size(); i++) {
+            hash = (hash ^ words.packedAt(i)) * 0x100000001B3L;
+            hash ^= hash >>> 29;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the feedback a guess gets against a secret word.
+     *
+     * @param guess the dictionary index of the guess.
+     * @param secret the dictionary index of the secret word.
+     * @return the packed feedback (see {@link Feedback}).
+     */
+    public int feedback(int guess, int secret) {
+        MappedByteBuffer segment = this.segments[guess / this.rowsPerSegment];
+        return segment.get((guess % this.rowsPerSegment) * this.size + secret) & 0xFF;
+    }
+
+    /**
+     * Returns the number of words of the dictionary.
+     *
+     * @return the number of rows (and columns).
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the hash of the dictionary the matrix was built from.
+     *
+     * @return the hash stored in the file.
+     */
+    public long hash() {
+        return this.hash;
+    }
+
+    /**
+     * Returns the path of the matrix file of a word list.
+     *
+     * @param source the word list.
+     * @param wordLength the number of letters of the words.
+     * @return the sibling path ending in {@code -<length>.matrix}.
+     */
+    static Path matrixPath(Path source, int wordLength) {
+        String name = source.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return source.resolveSibling(base + "-" + wordLength + ".matrix");
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer bytes, long position) throws IOException {
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+    }
+
+    /**
+     * Computes a range of rows, splitting it in halves while it is large,
+     * and writes them at their place in the file.
+     */
+    private static final class RowsTask extends RecursiveAction {
+
+        private final BatchScorer scorer;
+        private final long[] words;
+        private final FileChannel channel;
+        private final int from;
+        private final int to;
+
+        private RowsTask(BatchScorer scorer, long[] words, FileChannel channel, int from, int to) {
+            this.scorer = scorer;
+            this.words = words;
+            this.channel = channel;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > ROWS_PER_TASK) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new RowsTask(this.scorer, this.words, this.channel, this.from, middle),
+                        new RowsTask(this.scorer, this.words, this.channel, middle, this.to));
+                return;
+            }
+            int n = this.words.length;
+            ByteBuffer row = ByteBuffer.allocate(n);
+            int[] feedbacks = new int[n];
+            try {
+                for (int g = this.from; g < this.to; g++) {
+                    row.clear();
+                    this.scorer.score(this.words[g], feedbacks);
+                    for (int s = 0; s < n; s++) {
+                        row.put((byte) feedbacks[s]);
+                    }
+                    row.flip();
+                    writeFully(this.channel, row, HEADER_BYTES + (long) g * n);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package wordlegame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * GameJournal - Append-only history of finished games, written in the
+ * background.
+ *
+ * Games are handed over through a queue, so the player never waits for the
+ * disk. A single writer thread takes every game waiting in the queue, writes
+ * them as {@link GameRecord} lines with one write and makes them durable with
+ * one fsync (group commit). Records go to segment files
+ * {@code journal-000001.log}, {@code journal-000002.log}, ... in the
+ * journal directory; a new segment is started when the current one grows
+ * past the segment size.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class GameJournal implements AutoCloseable {
+
+    /**
+     * Directory used by {@link #defaultJournal()}.
+     */
+    public static final String DEFAULT_DIRECTORY = "trackers";
+
+    /**
+     * Default maximum size of a segment before rolling to the next one.
+     */
+    public static final long DEFAULT_SEGMENT_BYTES = 8L * 1024 * 1024;
+
+    /**
+     * Prefix and suffix of segment file names.
+     */
+    static final String SEGMENT_PREFIX = "journal-";
+    static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * Maximum number of games waiting to be written.
+     */
+    private static final int QUEUE_CAPACITY = 64 * 1024;
+
+    /**
+     * Maximum number of games written in one batch.
+     */
+    private static final int MAX_BATCH = 4096;
+
+    /**
+     * Marker put in the queue to stop the writer.
+     */
+    private static final GameRecord CLOSE = new GameRecord(Instant.EPOCH, "", false, new String[0], new int[0]);
+
+    /**
+     * Journal shared by the console game and the server, opened on first use.
+     */
+    private static GameJournal defaultJournal;
+
+    /**
+     * Directory holding the segments.
+     */
+    private final Path directory;
+
+    /**
+     * Size after which a new segment is started.
+     */
+    private final long segmentBytes;
+
+    /**
+     * Games waiting to be written.
+     */
+    private final BlockingQueue<GameRecord> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+    /**
+     * Background thread that writes the queued games.
+     */
+    private final Thread writer;
+
+    /**
+     * Number of the current segment.
+     */
+    private int segment;
+
+    /**
+     * Open channel to the current segment.
+     */
+    private FileChannel channel;
+
+    /**
+     * Set once close() has been called. Guarded by {@link #closing}.
+     */
+    private boolean closed;
+
+    /**
+     * Shared by the games being queued, exclusive while closing: every game
+     * queued before the journal is closed is ahead of {@link #CLOSE}.
+     */
+    private final ReadWriteLock closing = new ReentrantReadWriteLock();
+
+    /**
+     * Opens a journal, appending to its newest segment if there is one, and
+     * starts the writer thread.
+     *
+     * @param directory the directory holding the segments; created if needed.
+     * @param segmentBytes the size after which a new segment is started.
+     * @throws IOException if the directory or segment cannot be opened.
+     */
+    public GameJournal(Path directory, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        this.segment = Math.max(1, lastSegment(directory));
+        this.channel = openSegment(this.segment);
+
+        this.writer = new Thread(this::writeLoop, "game-journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Returns the journal in the {@value #DEFAULT_DIRECTORY} directory,
+     * opening it on first use. It is flushed and closed when the JVM exits.
+     *
+     * @return the shared journal.
+     * @throws IOException if the journal cannot be opened.
+     */
+    public static synchronized GameJournal defaultJournal() throws IOException {
+        if (defaultJournal == null) {
+            GameJournal journal = new GameJournal(Path.of(DEFAULT_DIRECTORY), DEFAULT_SEGMENT_BYTES);
+            Runtime.getRuntime().addShutdownHook(new Thread(journal::close, "game-journal-close"));
+            defaultJournal = journal;
+        }
+        return defaultJournal;
+    }
+
+    /**
+     * Lists the segment files of a journal directory, oldest first.
+     *
+     * @param directory the journal directory.
+     * @return the segment paths; empty if the directory does not exist.
+     * @throws IOException if the directory cannot be read.
+     */
+    public static List<Path> segments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                segments.add(file);
+            }
+        }
+        segments.sort(null); // names are zero-padded, so they sort by number
+        return segments;
+    }
+
+    /**
+     * Queues a finished game. Returns immediately unless the queue is full,
+     * in which case the caller waits for the writer to catch up.
+     *
+     * @param record the game to store.
+     * @throws IllegalStateException if the journal is closed.
+     */
+    public void append(GameRecord record) {
+        this.closing.readLock().lock();
+        try {
+            if (this.closed) {
+                throw new IllegalStateException("The journal is closed");
+            }
+            if (!this.queue.offer(record)) {
+                try {
+                    this.queue.put(record);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    Logger.getLogger(GameJournal.class.getName()).log(Level.WARNING, "Game not saved: {0}", record);
+                }
+            }
+        } finally {
+            this.closing.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes every queued game, makes it durable and stops the writer.
+     */
+    @Override
+    public void close() {
+        this.closing.writeLock().lock();
+        try {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+        } finally {
+            this.closing.writeLock().unlock();
+        }
+        try {
+            this.queue.put(CLOSE);
+            this.writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Body of the writer thread: waits for games and writes them in batches.
+     */
+    private void writeLoop() {
+        List<GameRecord> batch = new ArrayList<>();
+        boolean running = true;
+        try {
+            while (running) {
+                batch.add(this.queue.take());
+                this.queue.drainTo(batch, MAX_BATCH - 1);
+                running = !batch.remove(CLOSE);
+                if (!batch.isEmpty()) {
+                    try {
+                        long start = Metrics.start();
+                        write(batch);
+                        Metrics.global().stop(Metrics.Phase.PERSIST, start);
+                    } catch (IOException ex) {
+                        // Keep serving later games; this batch is lost.
+                        Logger.getLogger(GameJournal.class.getName()).log(Level.SEVERE,
+                                "Could not save " + batch.size() + " games", ex);
+                    }
+                }
+                batch.clear();
+            }
+            // Nothing should follow CLOSE, but a game left behind is still saved.
+            this.queue.drainTo(batch);
+            if (!batch.isEmpty()) {
+                try {
+                    write(batch);
+                } catch (IOException ex) {
+                    Logger.getLogger(GameJournal.class.getName()).log(Level.SEVERE,
+                            "Could not save " + batch.size() + " games", ex);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                this.channel.close();
+            } catch (IOException ex) {
+                Logger.getLogger(GameJournal.class.getName()).log(Level.SEVERE, null, ex);
+            }
+        }
+    }
+
+    /**
+     * Writes a batch of games with a single write and a single fsync, rolling
+     * to a new segment first if the current one is full.
+     *
+     * @param batch the games to write.
+     * @throws IOException if the segment cannot be written.
+     */
+    private void write(List<GameRecord> batch) throws IOException {
+        StringBuilder lines = new StringBuilder(batch.size() * 96);
+        for (GameRecord record : batch) {
+            lines.append(record.toLine()).append('\n');
+        }
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(lines.toString());
+
+        if (this.channel.size() > 0 && this.channel.size() + bytes.remaining() > this.segmentBytes) {
+            this.channel.close();
+            this.segment++;
+            this.channel = openSegment(this.segment);
+        }
+        while (bytes.hasRemaining()) {
+            this.channel.write(bytes);
+        }
+        this.channel.force(false);
+    }
+
+    /**
+     * Opens a segment for appending, creating it if needed.
+     *
+     * @param number the segment number.
+     * @return the open channel.
+     * @throws IOException if the file cannot be opened.
+     */
+    private FileChannel openSegment(int number) throws IOException {
+        Path file = this.directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Finds the number of the newest segment in a directory.
+     *
+     * @param directory the journal directory.
+     * @return the highest segment number, or 0 if there is none.
+     * @throws IOException if the directory cannot be read.
+     */
+    private static int lastSegment(Path directory) throws IOException {
+        int last = 0;
+        for (Path file : segments(directory)) {
+            String name = file.getFileName().toString();
+            String number = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+            try {
+                last = Math.max(last, Integer.parseInt(number));
+            } catch (NumberFormatException e) {
+                // Not one of our segments; ignore it.
+            }
+        }
+        return last;
+    }
+}
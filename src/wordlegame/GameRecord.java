@@ -0,0 +1,334 @@
+package wordlegame;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * GameRecord - Summary of a finished game, as stored in the
+ * {@link GameJournal}.
+ *
+ * A record is written as a single line of tab-separated fields:
+ *
+ * <pre>
+ * finishedAt  secretWord  WON|LOST  maxTries  GUESS:PATTERN GUESS:PATTERN ...
+ * </pre>
+ *
+ * where the time is an ISO-8601 instant, maxTries the attempts the game
+ * allowed and the pattern uses 'G' for green, 'Y' for yellow and '-' for
+ * grey, for example
+ * {@code 2025-06-05T00:20:10Z  MENOS  WON  6  MEEES:GG--G MENOS:GGGGG}.
+ * Lines written before the attempts were saved have no maxTries field; they
+ * are still read, with the attempts unknown.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class GameRecord {
+
+    /**
+     * When the game ended.
+     */
+    private final Instant finishedAt;
+
+    /**
+     * Secret word of the game, in uppercase.
+     */
+    private final String secretWord;
+
+    /**
+     * True if the player guessed the secret word.
+     */
+    private final boolean won;
+
+    /**
+     * Attempts the game allowed, or 0 if unknown.
+     */
+    private final int maxTries;
+
+    /**
+     * Accepted guesses, in uppercase, in order.
+     */
+    private final String[] guesses;
+
+    /**
+     * Packed feedback of every guess (see {@link Feedback}).
+     */
+    private final int[] feedbacks;
+
+    /**
+     * Creates a record of a game whose number of attempts allowed is not
+     * known, such as the games of the old history files.
+     *
+     * @param finishedAt when the game ended.
+     * @param secretWord the secret word.
+     * @param won true if the player guessed the secret word.
+     * @param guesses the accepted guesses, in order.
+     * @param feedbacks the packed feedback of every guess.
+     */
+    public GameRecord(Instant finishedAt, String secretWord, boolean won, String[] guesses, int[] feedbacks) {
+        this(finishedAt, secretWord, won, 0, guesses, feedbacks);
+    }
+
+    /**
+     * Creates a record.
+     *
+     * @param finishedAt when the game ended.
+     * @param secretWord the secret word.
+     * @param won true if the player guessed the secret word.
+     * @param maxTries the attempts the game allowed, or 0 if unknown.
+     * @param guesses the accepted guesses, in order.
+     * @param feedbacks the packed feedback of every guess.
+     */
+    public GameRecord(Instant finishedAt, String secretWord, boolean won, int maxTries, String[] guesses,
+            int[] feedbacks) {
+        if (maxTries < 0) {
+            throw new IllegalArgumentException("The attempts cannot be negative: " + maxTries);
+        }
+        if (guesses.length != feedbacks.length) {
+            throw new IllegalArgumentException("Every guess needs its feedback");
+        }
+        this.finishedAt = finishedAt;
+        this.secretWord = secretWord;
+        this.won = won;
+        this.maxTries = maxTries;
+        this.guesses = guesses.clone();
+        this.feedbacks = feedbacks.clone();
+    }
+
+    /**
+     * Creates the record of a finished game.
+     *
+     * @param session the game.
+     * @return the record, stamped with the current time.
+     * @throws IllegalStateException if the game is still being played.
+     */
+    public static GameRecord of(GameSession session) {
+        if (session.status() == GameSession.Status.PLAYING) {
+            throw new IllegalStateException("The game is not over");
+        }
+        String[] guesses = new String[session.tries()];
+        int[] feedbacks = new int[session.tries()];
+        for (int i = 0; i < guesses.length; i++) {
+            guesses[i] = session.guessAt(i);
+            feedbacks[i] = session.feedbackAt(i);
+        }
+        return new GameRecord(Instant.now(), session.secretWord(), session.status() == GameSession.Status.WON,
+                session.maxTries(), guesses, feedbacks);
+    }
+
+    /**
+     * Parses a line written by {@link #toLine()}, with or without the
+     * maxTries field.
+     *
+     * @param line the journal line, without the line terminator.
+     * @return the record.
+     * @throws IllegalArgumentException if the line is not a valid record.
+     */
+    public static GameRecord parse(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length < 4 || fields.length > 5 || !(fields[2].equals("WON") || fields[2].equals("LOST"))) {
+            throw new IllegalArgumentException("Not a game record: " + line);
+        }
+        int maxTries = 0;
+        if (fields.length == 5) {
+            try {
+                maxTries = Integer.parseInt(fields[3]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a game record: " + line, e);
+            }
+            if (maxTries < 1) {
+                throw new IllegalArgumentException("Not a game record: " + line);
+            }
+        }
+        String list = fields[fields.length - 1];
+        String[] attempts = list.isEmpty() ? new String[0] : list.split(" ");
+        String[] guesses = new String[attempts.length];
+        int[] feedbacks = new int[attempts.length];
+        for (int i = 0; i < attempts.length; i++) {
+            int colon = attempts[i].indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Not a game record: " + line);
+            }
+            guesses[i] = attempts[i].substring(0, colon);
+            feedbacks[i] = Feedback.parsePattern(attempts[i].substring(colon + 1));
+        }
+        return new GameRecord(parseInstant(fields[0]), fields[1], fields[2].equals("WON"), maxTries, guesses,
+                feedbacks);
+    }
+
+    /**
+     * Parses the time of a record. The times written by {@link #toLine()}
+     * ({@code 2025-06-05T00:20:10.123Z}) are read field by field, several
+     * times faster than {@link Instant#parse(CharSequence)} (see
+     * {@code GameRecordBenchmark}), which is only used for the other ISO-8601
+     * forms and to report the invalid ones.
+     *
+     * @param text the time.
+     * @return the instant, the same {@link Instant#parse(CharSequence)}
+     * returns.
+     * @throws java.time.format.DateTimeParseException if the text is not an
+     * instant.
+     */
+    static Instant parseInstant(String text) {
+        int length = text.length();
+        if (length < 20 || length > 30 || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T'
+                || text.charAt(13) != ':' || text.charAt(16) != ':' || text.charAt(length - 1) != 'Z') {
+            return Instant.parse(text);
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        int day = digits(text, 8, 10);
+        int hour = digits(text, 11, 13);
+        int minute = digits(text, 14, 16);
+        int second = digits(text, 17, 19);
+        int nanos = 0;
+        if (length > 20) {
+            if (text.charAt(19) != '.' || length == 21) {
+                return Instant.parse(text);
+            }
+            nanos = digits(text, 20, length - 1);
+            for (int i = length - 1 - 20; i < 9; i++) {
+                nanos *= 10;
+            }
+        }
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || hour > 23 || minute < 0 || minute > 59
+                || second < 0 || second > 59 || nanos < 0) {
+            return Instant.parse(text);
+        }
+        long epochDay;
+        try {
+            epochDay = LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException e) {
+            return Instant.parse(text); // reports the bad date
+        }
+        return Instant.ofEpochSecond(epochDay * 86400 + hour * 3600 + minute * 60 + second, nanos);
+    }
+
+    /**
+     * Reads a run of decimal digits, or returns -1 if there is something
+     * else.
+     */
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Formats the record as one journal line; without the maxTries field if
+     * the attempts are not known.
+     *
+     * @return the line, without the line terminator.
+     */
+    public String toLine() {
+        StringBuilder line = new StringBuilder(64 + this.guesses.length * 16);
+        line.append(this.finishedAt).append('\t')
+                .append(this.secretWord).append('\t')
+                .append(this.won ? "WON" : "LOST").append('\t');
+        if (this.maxTries > 0) {
+            line.append(this.maxTries).append('\t');
+        }
+        for (int i = 0; i < this.guesses.length; i++) {
+            if (i > 0) {
+                line.append(' ');
+            }
+            line.append(this.guesses[i]).append(':')
+                    .append(Feedback.pattern(this.feedbacks[i], this.guesses[i].length()));
+        }
+        return line.toString();
+    }
+
+    /**
+     * Returns when the game ended.
+     *
+     * @return the end time.
+     */
+    public Instant finishedAt() {
+        return this.finishedAt;
+    }
+
+    /**
+     * Returns the secret word.
+     *
+     * @return the secret word in uppercase.
+     */
+    public String secretWord() {
+        return this.secretWord;
+    }
+
+    /**
+     * Tells whether the player guessed the secret word.
+     *
+     * @return true if the game was won.
+     */
+    public boolean won() {
+        return this.won;
+    }
+
+    /**
+     * Returns the number of attempts the game allowed.
+     *
+     * @return the attempts, or 0 if the record does not say (games saved by
+     * older versions).
+     */
+    public int maxTries() {
+        return this.maxTries;
+    }
+
+    /**
+     * Returns the number of guesses made.
+     *
+     * @return the number of attempts.
+     */
+    public int tries() {
+        return this.guesses.length;
+    }
+
+    /**
+     * Returns a guess.
+     *
+     * @param attempt the attempt number, starting at 0.
+     * @return the guess in uppercase.
+     */
+    public String guessAt(int attempt) {
+        return this.guesses[attempt];
+    }
+
+    /**
+     * Returns the feedback of a guess.
+     *
+     * @param attempt the attempt number, starting at 0.
+     * @return the packed feedback.
+     */
+    public int feedbackAt(int attempt) {
+        return this.feedbacks[attempt];
+    }
+
+    @Override
+    public String toString() {
+        return toLine();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof GameRecord)) {
+            return false;
+        }
+        GameRecord record = (GameRecord) other;
+        return this.won == record.won && this.maxTries == record.maxTries && this.finishedAt.equals(record.finishedAt)
+                && this.secretWord.equals(record.secretWord) && Arrays.equals(this.guesses, record.guesses)
+                && Arrays.equals(this.feedbacks, record.feedbacks);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * this.finishedAt.hashCode() + this.secretWord.hashCode()) + Arrays.hashCode(this.guesses);
+    }
+}
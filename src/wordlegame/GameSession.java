@@ -0,0 +1,266 @@
+package wordlegame;
+
+/**
+ * GameSession - State of one Wordle game, without any input or output.
+ *
+ * The session keeps the secret word, the attempts made and their feedback,
+ * and decides when the game is won or lost. Front ends (the console game,
+ * the server, simulators) only pass the words typed by the player and show
+ * the result. Validation and scoring times and the game counters are recorded
+ * in the {@link Metrics} given to the session, if any, so that games replayed
+ * or simulated in bulk do not count as played ones. A session is not
+ * thread-safe; callers sharing one between threads must synchronize on it.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class GameSession {
+
+    /**
+     * State of the game.
+     */
+    public enum Status {
+        PLAYING, WON, LOST
+    }
+
+    /**
+     * Secret word chosen for this game, in uppercase.
+     */
+    private final String secretWord;
+
+    /**
+     * Secret word packed (see {@link PackedWord}), to score the guesses
+     * without decoding letters, or {@link PackedWord#INVALID}.
+     */
+    private final long packedSecret;
+
+    /**
+     * Maximum number of attempts allowed for the player.
+     */
+    private final int maxTries;
+
+    /**
+     * Validates the words typed by the player.
+     */
+    private final GuessValidator validator;
+
+    /**
+     * Accepted guesses, in uppercase, in the order they were made.
+     */
+    private final String[] guesses;
+
+    /**
+     * Packed feedback of every accepted guess.
+     */
+    private final int[] feedbacks;
+
+    /**
+     * Number of accepted guesses.
+     */
+    private int tries;
+
+    /**
+     * Current state of the game.
+     */
+    private Status status;
+
+    /**
+     * Where the game is recorded, or null to not record it.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Creates a new game recorded in the {@link Metrics#global() global}
+     * metrics.
+     *
+     * @param secretWord the word to guess.
+     * @param maxTries the maximum number of attempts.
+     * @param validator the validator for the guesses; its word length must be
+     * the length of the secret word.
+     */
+    public GameSession(String secretWord, int maxTries, GuessValidator validator) {
+        this(secretWord, maxTries, validator, Metrics.global());
+    }
+
+    /**
+     * Creates a new game.
+     *
+     * @param secretWord the word to guess.
+     * @param maxTries the maximum number of attempts.
+     * @param validator the validator for the guesses; its word length must be
+     * the length of the secret word.
+     * @param metrics where the game is recorded, or null to not record it.
+     */
+    public GameSession(String secretWord, int maxTries, GuessValidator validator, Metrics metrics) {
+        if (secretWord.length() != validator.wordLength()) {
+            throw new IllegalArgumentException("Secret word \"" + secretWord + "\" does not have "
+                    + validator.wordLength() + " letters");
+        }
+        this.secretWord = secretWord.toUpperCase();
+        this.packedSecret = PackedWord.pack(this.secretWord);
+        this.maxTries = maxTries;
+        this.validator = validator;
+        this.guesses = new String[maxTries];
+        this.feedbacks = new int[maxTries];
+        this.tries = 0;
+        this.status = Status.PLAYING;
+        this.metrics = metrics;
+        if (metrics != null) {
+            metrics.increment(Metrics.Counter.GAMES_STARTED);
+        }
+    }
+
+    /**
+     * Submits a guess. Invalid words are rejected and do not count as an
+     * attempt.
+     *
+     * @param word the word typed by the player.
+     * @return {@link GuessValidator.Verdict#VALID} if the guess was accepted
+     * (its feedback is then available with {@link #lastFeedback()}), or the
+     * reason why it was rejected.
+     * @throws IllegalStateException if the game is already over.
+     */
+    public GuessValidator.Verdict submit(CharSequence word) {
+        if (this.status != Status.PLAYING) {
+            throw new IllegalStateException("The game is over");
+        }
+        Metrics metrics = this.metrics; // null: nothing is timed or counted
+        long start = metrics != null ? Metrics.start() : 0;
+        GuessValidator.Verdict verdict = this.validator.check(word);
+        if (metrics != null) {
+            metrics.stop(Metrics.Phase.VALIDATION, start);
+        }
+        if (verdict != GuessValidator.Verdict.VALID) {
+            if (metrics != null) {
+                metrics.increment(Metrics.Counter.INVALID_INPUTS);
+            }
+            return verdict;
+        }
+
+        String guess = word.toString().toUpperCase();
+        start = metrics != null ? Metrics.start() : 0;
+        int feedback = score(guess);
+        if (metrics != null) {
+            metrics.stop(Metrics.Phase.SCORING, start);
+            metrics.increment(Metrics.Counter.GUESSES);
+        }
+        this.guesses[this.tries] = guess;
+        this.feedbacks[this.tries] = feedback;
+        this.tries++;
+
+        if (feedback == Feedback.allGreen(this.secretWord.length())) {
+            this.status = Status.WON;
+        } else if (this.tries == this.maxTries) {
+            this.status = Status.LOST;
+        }
+        if (metrics != null && this.status != Status.PLAYING) {
+            metrics.gameOver(this);
+        }
+        return verdict;
+    }
+
+    /**
+     * Scores a guess against the secret word, packed when both words can be
+     * packed.
+     *
+     * @param guess the guess, in uppercase.
+     * @return its packed feedback.
+     */
+    private int score(String guess) {
+        long packedGuess = PackedWord.pack(guess);
+        if (this.packedSecret == PackedWord.INVALID || packedGuess == PackedWord.INVALID) {
+            return Feedback.score(this.secretWord, guess);
+        }
+        return Feedback.score(this.packedSecret, packedGuess);
+    }
+
+    /**
+     * Returns the secret word.
+     *
+     * @return the secret word in uppercase.
+     */
+    public String secretWord() {
+        return this.secretWord;
+    }
+
+    /**
+     * Returns the number of letters of the secret word.
+     *
+     * @return the word length.
+     */
+    public int wordLength() {
+        return this.secretWord.length();
+    }
+
+    /**
+     * Returns the maximum number of attempts.
+     *
+     * @return the maximum number of attempts.
+     */
+    public int maxTries() {
+        return this.maxTries;
+    }
+
+    /**
+     * Returns the number of accepted guesses.
+     *
+     * @return the attempts made.
+     */
+    public int tries() {
+        return this.tries;
+    }
+
+    /**
+     * Returns the number of attempts left.
+     *
+     * @return the remaining attempts.
+     */
+    public int remainingAttempts() {
+        return this.maxTries - this.tries;
+    }
+
+    /**
+     * Returns the state of the game.
+     *
+     * @return PLAYING, WON or LOST.
+     */
+    public Status status() {
+        return this.status;
+    }
+
+    /**
+     * Returns an accepted guess.
+     *
+     * @param attempt the attempt number, starting at 0.
+     * @return the guess in uppercase.
+     */
+    public String guessAt(int attempt) {
+        checkAttempt(attempt);
+        return this.guesses[attempt];
+    }
+
+    /**
+     * Returns the feedback of an accepted guess.
+     *
+     * @param attempt the attempt number, starting at 0.
+     * @return the packed feedback (see {@link Feedback}).
+     */
+    public int feedbackAt(int attempt) {
+        checkAttempt(attempt);
+        return this.feedbacks[attempt];
+    }
+
+    /**
+     * Returns the feedback of the last accepted guess.
+     *
+     * @return the packed feedback (see {@link Feedback}).
+     */
+    public int lastFeedback() {
+        return feedbackAt(this.tries - 1);
+    }
+
+    private void checkAttempt(int attempt) {
+        if (attempt < 0 || attempt >= this.tries) {
+            throw new IndexOutOfBoundsException(attempt);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package wordlegame;
+
+/**
+ * GuessValidator - Checks the words typed by the player.
+ *
+ * Every character is classified once (letter, digit or other) in a single
+ * pass, without regular expressions, and the word is packed at the same time
+ * so it can be looked up in the dictionary. Nothing is allocated per call.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class GuessValidator {
+
+    /**
+     * Result of validating a word, with the message shown to the player.
+     */
+    public enum Verdict {
+        VALID(null),
+        EMPTY("Error: La palabra no puede estar vacia"),
+        LENGTH("Error: La palabra ingresada debe tener una longitud exacta de %d letras"),
+        NUMERIC("Error: No se aceptan valores númericos"),
+        SPECIAL_CHARS("Error: Los caracteres especiales no estan admitidos por el sistema"),
+        NOT_LETTERS("Error: Solo se admiten letras"),
+        UNKNOWN_WORD("Error: La palabra no existe en el diccionario");
+
+        /**
+         * Message format; {@code %d} is replaced by the word length.
+         */
+        private final String message;
+
+        Verdict(String message) {
+            this.message = message;
+        }
+
+        /**
+         * Returns the message shown to the player.
+         *
+         * @param wordLength the required number of letters.
+         * @return the error message, or null for {@link #VALID}.
+         */
+        public String message(int wordLength) {
+            return this == LENGTH ? String.format(this.message, wordLength) : this.message;
+        }
+    }
+
+    /**
+     * Number of letters a guess must have.
+     */
+    private final int wordLength;
+
+    /**
+     * Words accepted as guesses, or null to accept any word.
+     */
+    private final PackedWordSet dictionary;
+
+    /**
+     * Creates a validator.
+     *
+     * @param wordLength the number of letters a guess must have.
+     * @param dictionary the words accepted as guesses, or null to accept any
+     * combination of letters.
+     */
+    public GuessValidator(int wordLength, PackedWordSet dictionary) {
+        this.wordLength = wordLength;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Returns the number of letters a guess must have.
+     *
+     * @return the word length.
+     */
+    public int wordLength() {
+        return this.wordLength;
+    }
+
+    /**
+     * Validates a word typed by the player.
+     *
+     * @param word the raw input line.
+     * @return {@link Verdict#VALID} or the reason why the word is rejected.
+     */
+    public Verdict check(CharSequence word) {
+        int length = word.length();
+        if (length == 0) {
+            return Verdict.EMPTY;
+        }
+
+        int letters = 0;
+        int digits = 0;
+        int others = 0;
+        boolean packable = length == this.wordLength;
+        long packed = PackedWord.empty(length);
+
+        for (int i = 0; i < length; i++) {
+            char c = word.charAt(i);
+            int code = Letters.code(c);
+            if (code >= 0) {
+                letters++;
+                if (packable) {
+                    packed = PackedWord.withCode(packed, i, code);
+                }
+            } else if (c >= '0' && c <= '9') {
+                digits++;
+            } else {
+                others++;
+            }
+        }
+
+        boolean lengthException = length != this.wordLength;
+        boolean numericException = digits == length;
+        boolean especialCharException = others > 0;
+
+        if (lengthException || letters != length) {
+            if (lengthException && !numericException && !especialCharException) {
+                return Verdict.LENGTH;
+            } else if (numericException) {
+                return Verdict.NUMERIC;
+            } else if (especialCharException) {
+                return Verdict.SPECIAL_CHARS;
+            } else {
+                return Verdict.NOT_LETTERS;
+            }
+        }
+        if (this.dictionary != null && !this.dictionary.contains(packed)) {
+            return Verdict.UNKNOWN_WORD;
+        }
+        return Verdict.VALID;
+    }
+}
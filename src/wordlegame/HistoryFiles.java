@@ -0,0 +1,251 @@
+package wordlegame;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * HistoryFiles - Reads the game history saved by the game, in both formats:
+ *
+ * <ul>
+ * <li>the {@link GameJournal} segments ({@code journal-000001.log}), one
+ * {@link GameRecord} per line;</li>
+ * <li>the old text files ({@code gamesTriesHistory.txt} and
+ * {@code trackers/<date>gamesTriesHistory.txt}), with the date, the
+ * attempts one per line and "Bravo!!!!" or "OOps MALA SUERTE" at the
+ * end.</li>
+ * </ul>
+ *
+ * Files are memory-mapped and decoded in one go. The old files do not keep
+ * the colors, so the feedback of their attempts is scored again with
+ * {@link Feedback}; attempts that do not have the length of the secret word
+ * are kept with an all-grey feedback.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class HistoryFiles {
+
+    /**
+     * Suffix of the old text history files.
+     */
+    static final String LEGACY_SUFFIX = "gamesTriesHistory.txt";
+
+    /**
+     * Lines of the old format.
+     */
+    private static final String LEGACY_HEADER = "GAMES DATE AND TIME:";
+    private static final String LEGACY_ATTEMPTS = "YOUR ATTEMPTS:";
+    private static final String LEGACY_WON = "Bravo!!!! Has adivinado la palabra secreta :";
+    private static final String LEGACY_LOST = "OOps MALA SUERTE HAS PERDIDO";
+    private static final String LEGACY_SECRET = "La Palabra secreta era:";
+
+    /**
+     * Date formats written by the old versions of the game.
+     */
+    private static final DateTimeFormatter[] LEGACY_DATES = {
+        DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss"),
+        DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")
+    };
+
+    private HistoryFiles() {
+    }
+
+    /**
+     * Tells whether a file contains game history.
+     *
+     * @param file the file.
+     * @return true for journal segments and old history text files.
+     */
+    public static boolean isHistoryFile(Path file) {
+        String name = file.getFileName().toString();
+        return isJournalSegment(file) || name.endsWith(LEGACY_SUFFIX);
+    }
+
+    /**
+     * Tells whether a file is a {@link GameJournal} segment.
+     *
+     * @param file the file.
+     * @return true for journal segments.
+     */
+    public static boolean isJournalSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(GameJournal.SEGMENT_PREFIX) && name.endsWith(GameJournal.SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Reads every game of a history file.
+     *
+     * @param file a journal segment or an old history text file.
+     * @return the games, in file order.
+     * @throws IOException if the file cannot be read.
+     */
+    public static List<GameRecord> read(Path file) throws IOException {
+        CharSequence text = map(file);
+        if (isJournalSegment(file)) {
+            return parseJournal(text, file);
+        }
+        return parseLegacy(text, Files.getLastModifiedTime(file).toInstant());
+    }
+
+    /**
+     * Memory-maps a file and decodes it as UTF-8.
+     *
+     * @param file the file.
+     * @return its text.
+     * @throws IOException if the file cannot be read.
+     */
+    static CharSequence map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return "";
+            }
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return StandardCharsets.UTF_8.decode(bytes);
+        }
+    }
+
+    /**
+     * Parses the lines of a journal segment. Lines that are not valid records
+     * (for example the last one, if the game crashed while writing it) are
+     * logged and skipped.
+     *
+     * @param text the segment text.
+     * @param file the segment, for the log messages.
+     * @return the games.
+     */
+    static List<GameRecord> parseJournal(CharSequence text, Path file) {
+        List<GameRecord> games = new ArrayList<>();
+        for (String line : lines(text)) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                games.add(GameRecord.parse(line));
+            } catch (IllegalArgumentException | DateTimeParseException ex) {
+                Logger.getLogger(HistoryFiles.class.getName()).log(Level.WARNING, "Skipping line of {0}: {1}",
+                        new Object[]{file, line});
+            }
+        }
+        return games;
+    }
+
+    /**
+     * Parses the old text history format. A file normally holds one game,
+     * but several games one after the other are also accepted.
+     *
+     * @param text the file text.
+     * @param fallbackTime the time used when the date cannot be read.
+     * @return the games.
+     */
+    public static List<GameRecord> parseLegacy(CharSequence text, Instant fallbackTime) {
+        List<GameRecord> games = new ArrayList<>();
+        List<String> attempts = new ArrayList<>();
+        Instant time = fallbackTime;
+        boolean inAttempts = false;
+        boolean lost = false;
+
+        List<String> lines = lines(text);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.equals(LEGACY_HEADER)) {
+                // Skip the dashes; the next non-empty line is the date.
+                int next = i + 1;
+                while (next < lines.size() && (lines.get(next).isEmpty() || lines.get(next).startsWith("-"))) {
+                    next++;
+                }
+                if (next < lines.size() && !lines.get(next).equals(LEGACY_ATTEMPTS)) {
+                    time = parseDate(lines.get(next), fallbackTime);
+                    i = next;
+                } else {
+                    time = fallbackTime;
+                    i = next - 1;
+                }
+                inAttempts = false;
+                lost = false;
+                attempts.clear();
+            } else if (line.equals(LEGACY_ATTEMPTS)) {
+                inAttempts = true;
+                if (i + 1 < lines.size() && lines.get(i + 1).startsWith("-")) {
+                    i++;
+                }
+            } else if (line.startsWith(LEGACY_WON)) {
+                String secret = line.substring(LEGACY_WON.length()).trim().toUpperCase();
+                attempts.add(secret);
+                games.add(legacyRecord(time, secret, true, attempts));
+                attempts.clear();
+                inAttempts = false;
+            } else if (line.startsWith(LEGACY_LOST)) {
+                lost = true;
+                inAttempts = false;
+            } else if (line.startsWith(LEGACY_SECRET) && lost) {
+                String secret = line.substring(LEGACY_SECRET.length()).trim().toUpperCase();
+                games.add(legacyRecord(time, secret, false, attempts));
+                attempts.clear();
+                lost = false;
+            } else if (inAttempts && !line.isEmpty()) {
+                attempts.add(line.toUpperCase());
+            }
+        }
+        return games;
+    }
+
+    /**
+     * Builds a record for a game of the old format, scoring its attempts.
+     */
+    private static GameRecord legacyRecord(Instant time, String secret, boolean won, List<String> attempts) {
+        String[] guesses = attempts.toArray(new String[0]);
+        int[] feedbacks = new int[guesses.length];
+        for (int i = 0; i < guesses.length; i++) {
+            if (guesses[i].length() == secret.length() && secret.length() <= Feedback.MAX_LENGTH) {
+                feedbacks[i] = Feedback.score(secret, guesses[i]);
+            }
+        }
+        return new GameRecord(time, secret, won, guesses, feedbacks);
+    }
+
+    /**
+     * Reads a date written by the old versions of the game, in local time.
+     */
+    private static Instant parseDate(String text, Instant fallbackTime) {
+        for (DateTimeFormatter format : LEGACY_DATES) {
+            try {
+                return LocalDateTime.parse(text, format).atZone(ZoneId.systemDefault()).toInstant();
+            } catch (DateTimeParseException e) {
+                // Try the next format.
+            }
+        }
+        return fallbackTime;
+    }
+
+    /**
+     * Splits a text into trimmed lines, accepting both \n and \r\n.
+     */
+    private static List<String> lines(CharSequence text) {
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            if (i == length || text.charAt(i) == '\n') {
+                if (i > start || i < length) {
+                    lines.add(text.subSequence(start, i).toString().trim());
+                }
+                start = i + 1;
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,509 @@
+package wordlegame;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * HistoryReplay - Plays every saved game again through the game engine and
+ * reports the games whose saved result disagrees with the current rules.
+ *
+ * Every attempt of a game is submitted again to a {@link GameSession} with
+ * the saved secret word, and the game is flagged when an attempt is rejected
+ * by the validator, when its feedback is not the one saved in the journal,
+ * when attempts follow the end of the game, or when the saved result (won or
+ * lost) is not the one the session reaches. Any combination of letters is
+ * accepted as a guess, since the dictionary may have changed since the game
+ * was played. The old text files keep no colors (see {@link HistoryFiles}),
+ * so only their result and attempts are checked.
+ *
+ * The journal segments are memory-mapped and cut into ranges of
+ * {@value #CHUNK_BYTES} bytes, aligned to whole lines, which are replayed in
+ * parallel on a fork-join pool, one line at a time, so a large archive is
+ * never decoded or held in memory at once. Run it after changing the scoring
+ * to check it against the whole history; the exit status is 1 when any game
+ * is flagged.
+ *
+ * Usage: {@code java wordlegame.HistoryReplay [--tries=N] [file or directory]...}
+ * ({@code gamesTriesHistory.txt} and {@code trackers} by default). Every game
+ * is replayed with the attempts saved in its record; {@code --tries} (those of
+ * a default game if not given) is only used for the records that do not say.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class HistoryReplay {
+
+    /**
+     * Bytes of a journal segment replayed by a single fork-join task.
+     */
+    static final int CHUNK_BYTES = 1024 * 1024;
+
+    /**
+     * Bytes mapped past the end of a chunk for its last line; a longer line
+     * is mapped again on its own.
+     */
+    static final int LINE_BYTES = 4096;
+
+    /**
+     * Flagged games kept in the report, to be printed.
+     */
+    private static final int MAX_EXAMPLES = 20;
+
+    /**
+     * Reasons to flag a game.
+     */
+    public enum Problem {
+        /**
+         * The secret word cannot be played (not letters, or too long).
+         */
+        SECRET("palabra secreta no valida"),
+        /**
+         * An attempt is rejected by the validator.
+         */
+        INVALID_GUESS("intento rechazado por el validador"),
+        /**
+         * The saved feedback of an attempt is not the current score.
+         */
+        FEEDBACK("feedback guardado distinto del actual"),
+        /**
+         * There are attempts after the game was won or lost.
+         */
+        AFTER_END("intentos despues del final de la partida"),
+        /**
+         * The saved result is not the result of the replay.
+         */
+        OUTCOME("resultado guardado distinto del actual");
+
+        private final String description;
+
+        Problem(String description) {
+            this.description = description;
+        }
+
+        /**
+         * Returns the description shown in the report.
+         *
+         * @return the description, in Spanish.
+         */
+        public String description() {
+            return this.description;
+        }
+    }
+
+    /**
+     * Totals of a replay. Reports of separate ranges are merged in file
+     * order.
+     */
+    public static final class Report {
+
+        private long games;
+        private long attempts;
+        private long unreadable;
+        private long flagged;
+        private final long[] problems = new long[Problem.values().length];
+        private final List<String> examples = new ArrayList<>();
+
+        /**
+         * Returns the number of games replayed.
+         *
+         * @return the count.
+         */
+        public long games() {
+            return this.games;
+        }
+
+        /**
+         * Returns the number of attempts replayed.
+         *
+         * @return the count.
+         */
+        public long attempts() {
+            return this.attempts;
+        }
+
+        /**
+         * Returns the number of journal lines that are not game records.
+         *
+         * @return the count.
+         */
+        public long unreadable() {
+            return this.unreadable;
+        }
+
+        /**
+         * Returns the number of games with at least one problem.
+         *
+         * @return the count.
+         */
+        public long flagged() {
+            return this.flagged;
+        }
+
+        /**
+         * Returns the number of games with a problem.
+         *
+         * @param problem the problem.
+         * @return the count.
+         */
+        public long count(Problem problem) {
+            return this.problems[problem.ordinal()];
+        }
+
+        /**
+         * Adds the totals of another report, replayed after this one.
+         */
+        private void merge(Report other) {
+            this.games += other.games;
+            this.attempts += other.attempts;
+            this.unreadable += other.unreadable;
+            this.flagged += other.flagged;
+            for (int i = 0; i < this.problems.length; i++) {
+                this.problems[i] += other.problems[i];
+            }
+            for (String example : other.examples) {
+                if (this.examples.size() == MAX_EXAMPLES) {
+                    break;
+                }
+                this.examples.add(example);
+            }
+        }
+
+        /**
+         * Prints the report.
+         *
+         * @param out where to print it.
+         * @param nanos the duration of the replay.
+         */
+        public void print(PrintStream out, long nanos) {
+            double seconds = nanos / 1e9;
+            out.printf("Partidas reproducidas: %d (%d intentos) en %.2f s (%.0f partidas/s)\n", this.games,
+                    this.attempts, seconds, seconds > 0 ? this.games / seconds : 0.0);
+            if (this.unreadable > 0) {
+                out.printf("Lineas ilegibles:      %d\n", this.unreadable);
+            }
+            out.printf("Partidas marcadas:     %d\n", this.flagged);
+            for (Problem problem : Problem.values()) {
+                if (count(problem) > 0) {
+                    out.printf("  %-42s %d\n", problem.description(), count(problem));
+                }
+            }
+            if (!this.examples.isEmpty()) {
+                out.print("\nEjemplos:\n");
+                for (String example : this.examples) {
+                    out.println("  " + example);
+                }
+            }
+        }
+    }
+
+    /**
+     * A range of a history file: a byte range of a journal segment, or a
+     * whole old text file.
+     */
+    private static final class Chunk {
+
+        private final Path file;
+        private final long from;
+        private final long to;
+
+        private Chunk(Path file, long from, long to) {
+            this.file = file;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    /**
+     * Replays a range of chunks, splitting it in halves while it is large.
+     */
+    private final class ReplayTask extends RecursiveTask<Report> {
+
+        private final List<Chunk> chunks;
+        private final int from;
+        private final int to;
+
+        private ReplayTask(List<Chunk> chunks, int from, int to) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Report compute() {
+            if (this.to - this.from > 1) {
+                int middle = (this.from + this.to) >>> 1;
+                ReplayTask left = new ReplayTask(this.chunks, this.from, middle);
+                left.fork();
+                Report right = new ReplayTask(this.chunks, middle, this.to).compute();
+                Report result = left.join();
+                result.merge(right);
+                return result;
+            }
+            Report report = new Report();
+            if (this.to > this.from) {
+                try {
+                    replay(this.chunks.get(this.from), report);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return report;
+        }
+    }
+
+    /**
+     * Attempts allowed per game whose record does not say.
+     */
+    private final int maxTries;
+
+    /**
+     * Validators of the guesses, by word length; they accept any letters.
+     */
+    private final GuessValidator[] validators = new GuessValidator[Feedback.MAX_LENGTH + 1];
+
+    /**
+     * Creates a replayer.
+     *
+     * @param maxTries the attempts allowed per game, for the records that do
+     * not save them.
+     */
+    public HistoryReplay(int maxTries) {
+        this.maxTries = maxTries;
+        for (int length = 1; length <= Feedback.MAX_LENGTH; length++) {
+            this.validators[length] = new GuessValidator(length, null);
+        }
+    }
+
+    /**
+     * Command line entry point.
+     *
+     * @param args {@code --tries=N} if the games of the records that do not
+     * save their attempts allowed other than the default ones, and the
+     * history files or directories to replay.
+     * @throws IOException if a file cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        int maxTries = WordleGame.DEFAULT_MAX_TRIES;
+        List<Path> paths = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--tries=")) {
+                maxTries = Integer.parseInt(arg.substring("--tries=".length()));
+            } else {
+                paths.add(Path.of(arg));
+            }
+        }
+        if (paths.isEmpty()) {
+            paths.add(Path.of(HistoryFiles.LEGACY_SUFFIX));
+            paths.add(Path.of(GameJournal.DEFAULT_DIRECTORY));
+        }
+        List<Path> files = historyFiles(paths);
+        System.out.printf("Ficheros de historial: %d\n", files.size());
+
+        long start = System.nanoTime();
+        Report report = new HistoryReplay(maxTries).replay(files);
+        report.print(System.out, System.nanoTime() - start);
+        if (report.flagged() > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Lists the history files among some paths: files are kept as they are
+     * and directories are replaced by the history files they contain, sorted
+     * by name. Paths that do not exist are ignored.
+     *
+     * @param paths files or directories.
+     * @return the history files.
+     * @throws IOException if a directory cannot be read.
+     */
+    public static List<Path> historyFiles(List<Path> paths) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path path : paths) {
+            if (Files.isDirectory(path)) {
+                List<Path> found = new ArrayList<>();
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(path, HistoryFiles::isHistoryFile)) {
+                    for (Path file : entries) {
+                        found.add(file);
+                    }
+                }
+                found.sort(null);
+                files.addAll(found);
+            } else if (Files.isRegularFile(path)) {
+                files.add(path);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Replays every game of some history files in parallel.
+     *
+     * @param files journal segments and old history text files.
+     * @return the totals, with the first flagged games in file order.
+     * @throws IOException if a file cannot be read.
+     */
+    public Report replay(List<Path> files) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        for (Path file : files) {
+            long size = Files.size(file);
+            if (HistoryFiles.isJournalSegment(file)) {
+                for (long from = 0; from < size; from += CHUNK_BYTES) {
+                    chunks.add(new Chunk(file, from, Math.min(size, from + CHUNK_BYTES)));
+                }
+            } else {
+                chunks.add(new Chunk(file, 0, size));
+            }
+        }
+        try {
+            return ForkJoinPool.commonPool().invoke(new ReplayTask(chunks, 0, chunks.size()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Replays one game.
+     *
+     * @param game the saved game.
+     * @return the problems found, as a bit set of {@link Problem} ordinals;
+     * 0 if the game agrees with the current rules.
+     */
+    public int check(GameRecord game) {
+        String secret = game.secretWord();
+        int length = secret.length();
+        if (length == 0 || length > Feedback.MAX_LENGTH
+                || this.validators[length].check(secret) != GuessValidator.Verdict.VALID) {
+            return 1 << Problem.SECRET.ordinal();
+        }
+
+        int problems = 0;
+        // Replayed games were already recorded when they were played.
+        int maxTries = game.maxTries() > 0 ? game.maxTries() : this.maxTries;
+        GameSession session = new GameSession(secret, maxTries, this.validators[length], null);
+        for (int i = 0; i < game.tries(); i++) {
+            if (session.status() != GameSession.Status.PLAYING) {
+                problems |= 1 << Problem.AFTER_END.ordinal();
+                break;
+            }
+            if (session.submit(game.guessAt(i)) != GuessValidator.Verdict.VALID) {
+                problems |= 1 << Problem.INVALID_GUESS.ordinal();
+            } else if (session.lastFeedback() != game.feedbackAt(i)) {
+                problems |= 1 << Problem.FEEDBACK.ordinal();
+            }
+        }
+        if (game.won() != (session.status() == GameSession.Status.WON)) {
+            problems |= 1 << Problem.OUTCOME.ordinal();
+        }
+        return problems;
+    }
+
+    /**
+     * Replays the games of one chunk.
+     */
+    private void replay(Chunk chunk, Report report) throws IOException {
+        if (!HistoryFiles.isJournalSegment(chunk.file)) {
+            for (GameRecord game : HistoryFiles.read(chunk.file)) {
+                add(report, chunk.file, game);
+            }
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(chunk.file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (chunk.from >= size) {
+                return;
+            }
+            // Mapped from the byte before the chunk, to see where its first line starts,
+            // to a little past its end, for the line that crosses it.
+            long base = Math.max(0, chunk.from - 1);
+            int mapped = (int) (Math.min(size, chunk.to + LINE_BYTES) - base);
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, base, mapped);
+            int position = (int) (chunk.from - base);
+            int to = (int) (chunk.to - base);
+            if (chunk.from > 0) {
+                // The line that crosses the start belongs to the previous chunk.
+                while (position < mapped && bytes.get(position - 1) != '\n') {
+                    position++;
+                }
+            }
+            byte[] line = new byte[256];
+            // Every line that starts inside the chunk is replayed, whole.
+            while (position < to) {
+                int end = position;
+                while (true) {
+                    while (end < mapped && bytes.get(end) != '\n') {
+                        end++;
+                    }
+                    if (end < mapped || base + mapped == size) {
+                        break;
+                    }
+                    // The line goes on past the mapping: map it again from its start, larger.
+                    long start = base + position;
+                    long limit = Math.min(size, start + 2L * (end - position) + LINE_BYTES);
+                    if (limit - start > Integer.MAX_VALUE) {
+                        throw new IOException("Line longer than 2 GB in " + chunk.file + " at byte " + start);
+                    }
+                    to -= position;
+                    end -= position;
+                    position = 0;
+                    base = start;
+                    mapped = (int) (limit - start);
+                    bytes = channel.map(FileChannel.MapMode.READ_ONLY, base, mapped);
+                }
+                int length = end - position;
+                if (length > 0 && bytes.get(end - 1) == '\r') {
+                    length--;
+                }
+                if (length > line.length) {
+                    line = new byte[Math.max(length, line.length * 2)];
+                }
+                bytes.get(position, line, 0, length);
+                position = end + 1;
+                if (length == 0) {
+                    continue;
+                }
+                String text = new String(line, 0, length, StandardCharsets.UTF_8);
+                try {
+                    add(report, chunk.file, GameRecord.parse(text));
+                } catch (IllegalArgumentException | DateTimeParseException ex) {
+                    report.unreadable++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks a game and adds it to the report.
+     */
+    private void add(Report report, Path file, GameRecord game) {
+        report.games++;
+        report.attempts += game.tries();
+        int problems = check(game);
+        if (problems == 0) {
+            return;
+        }
+        report.flagged++;
+        StringBuilder reasons = new StringBuilder();
+        for (Problem problem : Problem.values()) {
+            if ((problems & (1 << problem.ordinal())) != 0) {
+                report.problems[problem.ordinal()]++;
+                reasons.append(reasons.length() == 0 ? "" : ", ").append(problem.description());
+            }
+        }
+        if (report.examples.size() < MAX_EXAMPLES) {
+            report.examples.add(file.getFileName() + ": " + game.toLine() + " (" + reasons + ")");
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package wordlegame;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HistoryStats - Statistics of a set of finished games.
+ *
+ * Stats of different files can be computed separately and then merged, and
+ * they can be saved as a single line of text, so {@link TrackerAnalytics}
+ * only needs to read the files that changed since its last run.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class HistoryStats {
+
+    /**
+     * Largest number of attempts counted separately in the histogram; longer
+     * games are counted in the last bucket.
+     */
+    static final int MAX_TRIES_BUCKET = 16;
+
+    /**
+     * Number of games.
+     */
+    private long games;
+
+    /**
+     * Number of games won.
+     */
+    private long wins;
+
+    /**
+     * Number of games won with exactly i attempts.
+     */
+    private final long[] winsByTries = new long[MAX_TRIES_BUCKET + 1];
+
+    /**
+     * Number of times each letter was used in a guess, by {@link Letters}
+     * code.
+     */
+    private final long[] letterGuessed = new long[Letters.COUNT];
+
+    /**
+     * Number of times each letter was used in a guess and came back grey.
+     */
+    private final long[] letterMissed = new long[Letters.COUNT];
+
+    /**
+     * For every secret word: games played, games lost and total attempts.
+     */
+    private final Map<String, long[]> secrets = new HashMap<>();
+
+    /**
+     * Adds a finished game.
+     *
+     * @param game the game.
+     */
+    public void add(GameRecord game) {
+        this.games++;
+        if (game.won()) {
+            this.wins++;
+            this.winsByTries[Math.min(game.tries(), MAX_TRIES_BUCKET)]++;
+        }
+
+        long[] secret = this.secrets.computeIfAbsent(game.secretWord(), k -> new long[3]);
+        secret[0]++;
+        secret[1] += game.won() ? 0 : 1;
+        secret[2] += game.tries();
+
+        for (int attempt = 0; attempt < game.tries(); attempt++) {
+            String guess = game.guessAt(attempt);
+            int feedback = game.feedbackAt(attempt);
+            for (int i = 0; i < guess.length() && i < Feedback.MAX_LENGTH; i++) {
+                int code = Letters.code(guess.charAt(i));
+                if (code >= 0) {
+                    this.letterGuessed[code]++;
+                    if (Feedback.at(feedback, i) == Feedback.GREY) {
+                        this.letterMissed[code]++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds all the games counted by other stats.
+     *
+     * @param other the stats to add.
+     */
+    public void merge(HistoryStats other) {
+        this.games += other.games;
+        this.wins += other.wins;
+        add(this.winsByTries, other.winsByTries);
+        add(this.letterGuessed, other.letterGuessed);
+        add(this.letterMissed, other.letterMissed);
+        for (Map.Entry<String, long[]> entry : other.secrets.entrySet()) {
+            add(this.secrets.computeIfAbsent(entry.getKey(), k -> new long[3]), entry.getValue());
+        }
+    }
+
+    /**
+     * Returns the number of games.
+     *
+     * @return the number of games.
+     */
+    public long games() {
+        return this.games;
+    }
+
+    /**
+     * Returns the number of games won.
+     *
+     * @return the number of wins.
+     */
+    public long wins() {
+        return this.wins;
+    }
+
+    /**
+     * Returns the share of games won.
+     *
+     * @return a value between 0 and 1, or 0 if there are no games.
+     */
+    public double winRate() {
+        return this.games == 0 ? 0 : (double) this.wins / this.games;
+    }
+
+    /**
+     * Returns how many games were won with a number of attempts.
+     *
+     * @param tries the number of attempts.
+     * @return the number of games won with that many attempts.
+     */
+    public long winsWithTries(int tries) {
+        return this.winsByTries[Math.min(tries, MAX_TRIES_BUCKET)];
+    }
+
+    /**
+     * Returns the share of guesses of a letter that came back grey.
+     *
+     * @param code the {@link Letters} code.
+     * @return a value between 0 and 1, or 0 if the letter was never used.
+     */
+    public double missRate(int code) {
+        return this.letterGuessed[code] == 0 ? 0 : (double) this.letterMissed[code] / this.letterGuessed[code];
+    }
+
+    /**
+     * Returns the secret words that were hardest to guess: highest loss rate
+     * first, then most attempts on average.
+     *
+     * @param limit the maximum number of words.
+     * @return the words, hardest first.
+     */
+    public List<String> hardestSecrets(int limit) {
+        List<String> words = new ArrayList<>(this.secrets.keySet());
+        words.sort((a, b) -> {
+            long[] x = this.secrets.get(a);
+            long[] y = this.secrets.get(b);
+            int byLosses = Double.compare((double) y[1] / y[0], (double) x[1] / x[0]);
+            if (byLosses != 0) {
+                return byLosses;
+            }
+            int byTries = Double.compare((double) y[2] / y[0], (double) x[2] / x[0]);
+            return byTries != 0 ? byTries : a.compareTo(b);
+        });
+        return words.subList(0, Math.min(limit, words.size()));
+    }
+
+    /**
+     * Prints a readable report.
+     *
+     * @param out where to print.
+     */
+    public void print(PrintStream out) {
+        out.printf("Partidas: %d   Ganadas: %d   Porcentaje de victorias: %.1f%%\n", this.games, this.wins,
+                winRate() * 100);
+
+        out.print("\nIntentos por partida ganada:\n");
+        for (int tries = 1; tries <= MAX_TRIES_BUCKET; tries++) {
+            if (this.winsByTries[tries] > 0) {
+                out.printf("  %2d%s: %d\n", tries, tries == MAX_TRIES_BUCKET ? "+" : " ", this.winsByTries[tries]);
+            }
+        }
+
+        out.print("\nPalabras secretas mas dificiles:\n");
+        for (String word : hardestSecrets(10)) {
+            long[] secret = this.secrets.get(word);
+            out.printf("  %s  jugadas %d, perdidas %d, intentos medios %.2f\n", word, secret[0], secret[1],
+                    (double) secret[2] / secret[0]);
+        }
+
+        out.print("\nFallos por letra (letra gris / veces usada):\n");
+        for (int code = 0; code < Letters.COUNT; code++) {
+            if (this.letterGuessed[code] > 0) {
+                out.printf("  %c: %5.1f%% (%d/%d)\n", Letters.letter(code), missRate(code) * 100,
+                        this.letterMissed[code], this.letterGuessed[code]);
+            }
+        }
+    }
+
+    /**
+     * Saves the stats as one line of text (no tabs or line breaks).
+     *
+     * @return the encoded stats.
+     */
+    public String encode() {
+        StringBuilder text = new StringBuilder();
+        text.append(this.games).append(' ').append(this.wins).append(' ');
+        join(text, this.winsByTries).append(' ');
+        join(text, this.letterGuessed).append(' ');
+        join(text, this.letterMissed).append(' ');
+        boolean first = true;
+        for (Map.Entry<String, long[]> entry : this.secrets.entrySet()) {
+            if (!first) {
+                text.append(';');
+            }
+            first = false;
+            long[] secret = entry.getValue();
+            text.append(entry.getKey()).append(':').append(secret[0]).append(':').append(secret[1]).append(':')
+                    .append(secret[2]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Reads stats saved with {@link #encode()}.
+     *
+     * @param text the encoded stats.
+     * @return the stats.
+     * @throws IllegalArgumentException if the text is not valid.
+     */
+    public static HistoryStats decode(String text) {
+        try {
+            String[] fields = text.split(" ", -1);
+            HistoryStats stats = new HistoryStats();
+            stats.games = Long.parseLong(fields[0]);
+            stats.wins = Long.parseLong(fields[1]);
+            split(fields[2], stats.winsByTries);
+            split(fields[3], stats.letterGuessed);
+            split(fields[4], stats.letterMissed);
+            if (!fields[5].isEmpty()) {
+                for (String entry : fields[5].split(";")) {
+                    String[] parts = entry.split(":");
+                    stats.secrets.put(parts[0], new long[]{
+                        Long.parseLong(parts[1]), Long.parseLong(parts[2]), Long.parseLong(parts[3])});
+                }
+            }
+            return stats;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid stats: " + text, e);
+        }
+    }
+
+    private static void add(long[] target, long[] values) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += values[i];
+        }
+    }
+
+    private static StringBuilder join(StringBuilder text, long[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(values[i]);
+        }
+        return text;
+    }
+
+    private static void split(String text, long[] values) {
+        String[] parts = text.split(",");
+        if (parts.length != values.length) {
+            throw new IllegalArgumentException("Expected " + values.length + " values: " + text);
+        }
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Long.parseLong(parts[i]);
+        }
+    }
+}
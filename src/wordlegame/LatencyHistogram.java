@@ -0,0 +1,180 @@
+package wordlegame;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram - Concurrent histogram of durations in nanoseconds, with a
+ * fixed relative precision, in the style of HdrHistogram.
+ *
+ * Every power of two is split into {@value #SUB_BUCKETS} linear buckets, so
+ * any recorded value is known within about 3% whatever its magnitude, from a
+ * nanosecond to about a minute (longer values count in the last bucket).
+ * Recording is a few shifts and one atomic increment, without allocation or
+ * locks. To avoid contention when many threads record the same phase, the
+ * counts are striped: every thread increments the stripe chosen by its id,
+ * and reading sums the stripes.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Bits of precision kept below the highest bit of a value.
+     */
+    private static final int SUB_BITS = 5;
+
+    /**
+     * Buckets per power of two.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /**
+     * Highest bit of the largest value tracked exactly (2^36 ns, about 69 s).
+     */
+    private static final int MAX_BIT = 36;
+
+    /**
+     * Number of buckets.
+     */
+    private static final int BUCKETS = (MAX_BIT - SUB_BITS + 2) << SUB_BITS;
+
+    /**
+     * Counts per bucket, one array per stripe.
+     */
+    private final AtomicLongArray[] stripes;
+
+    /**
+     * Number of stripes minus one (a power of two minus one).
+     */
+    private final int stripeMask;
+
+    /**
+     * Sum of the recorded values.
+     */
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * Largest recorded value.
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Creates an empty histogram with one stripe per processor (rounded up to
+     * a power of two).
+     */
+    public LatencyHistogram() {
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1) << 1);
+        this.stripes = new AtomicLongArray[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new AtomicLongArray(BUCKETS);
+        }
+        this.stripeMask = stripes - 1;
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration in nanoseconds; negative values count as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        int stripe = (int) Thread.currentThread().threadId() & this.stripeMask;
+        this.stripes[stripe].incrementAndGet(bucket(value));
+        this.total.add(value);
+        this.max.accumulate(value);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the count.
+     */
+    public long count() {
+        long count = 0;
+        for (AtomicLongArray stripe : this.stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                count += stripe.get(i);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return the mean in nanoseconds, 0 if nothing was recorded.
+     */
+    public double mean() {
+        long count = count();
+        return count == 0 ? 0 : this.total.sum() / (double) count;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return the maximum in nanoseconds, exact.
+     */
+    public long max() {
+        return this.max.get();
+    }
+
+    /**
+     * Returns the value below which a fraction of the recorded values fall.
+     *
+     * @param percentile the percentile, from 0 to 100.
+     * @return the upper bound of the bucket holding that value, in
+     * nanoseconds; 0 if nothing was recorded.
+     */
+    public long percentile(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (AtomicLongArray stripe : this.stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                long c = stripe.get(i);
+                counts[i] += c;
+                count += c;
+            }
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max());
+            }
+        }
+        return max();
+    }
+
+    /**
+     * Returns the bucket of a value.
+     */
+    private static int bucket(long value) {
+        int bit = 63 - Long.numberOfLeadingZeros(value | 1);
+        if (bit < SUB_BITS) {
+            return (int) value;
+        }
+        if (bit > MAX_BIT) {
+            return BUCKETS - 1;
+        }
+        int shift = bit - SUB_BITS;
+        return ((shift + 1) << SUB_BITS) | (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Returns the largest value of a bucket.
+     */
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS << 1) {
+            return bucket;
+        }
+        int shift = (bucket >>> SUB_BITS) - 1;
+        long lowest = (long) (SUB_BUCKETS | (bucket & (SUB_BUCKETS - 1))) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
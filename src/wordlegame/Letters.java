@@ -0,0 +1,53 @@
+package wordlegame;
+
+/**
+ * Letters - Maps the letters accepted by the game (A-Z and Ñ) to compact
+ * numeric codes, so words can be scored and stored without creating Strings.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class Letters {
+
+    /**
+     * Number of distinct letters in the alphabet (A-Z plus Ñ).
+     */
+    public static final int COUNT = 27;
+
+    /**
+     * Code reserved for the letter Ñ.
+     */
+    private static final int ENYE = 26;
+
+    private Letters() {
+    }
+
+    /**
+     * Returns the code of a letter, ignoring case.
+     *
+     * @param c the character to classify.
+     * @return 0-25 for A-Z, 26 for Ñ, or -1 if the character is not a letter
+     * of the game alphabet.
+     */
+    public static int code(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c == '\u00D1' || c == '\u00F1') {
+            return ENYE;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the uppercase letter for a code produced by {@link #code(char)}.
+     *
+     * @param code a letter code between 0 and {@link #COUNT} - 1.
+     * @return the uppercase letter.
+     */
+    public static char letter(int code) {
+        return code == ENYE ? '\u00D1' : (char) ('A' + code);
+    }
+}
@@ -0,0 +1,163 @@
+package wordlegame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * LineInput - Reads the lines typed by the player, or written in a script,
+ * from a channel.
+ *
+ * The bytes are read in large blocks into one buffer and decoded in bulk, so
+ * a script with thousands of games is read at disk speed, and lines are only
+ * split at '\n' (a trailing '\r' is dropped), without regular expressions.
+ * Standard input has a single shared instance ({@link #stdin()}): every game
+ * and the main menu read from it, so no line is lost in the buffer of another
+ * reader when the input is piped.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class LineInput implements Closeable {
+
+    /**
+     * Size of the byte and char buffers.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The shared reader of standard input, created on first use.
+     */
+    private static LineInput stdin;
+
+    /**
+     * Where the bytes come from.
+     */
+    private final ReadableByteChannel channel;
+
+    /**
+     * Decodes the bytes to chars.
+     */
+    private final CharsetDecoder decoder;
+
+    /**
+     * Bytes read and not decoded yet (an incomplete character at most).
+     */
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * Chars decoded and not returned yet.
+     */
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * The line being assembled when it spans two blocks.
+     */
+    private final StringBuilder line = new StringBuilder();
+
+    /**
+     * Whether the channel has no more bytes.
+     */
+    private boolean eof;
+
+    /**
+     * Creates a reader.
+     *
+     * @param channel where the bytes come from.
+     * @param charset the encoding of the text.
+     */
+    public LineInput(ReadableByteChannel channel, Charset charset) {
+        this.channel = channel;
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.chars.flip(); // nothing decoded yet
+    }
+
+    /**
+     * Opens a script file, in UTF-8.
+     *
+     * @param script the file.
+     * @return the reader.
+     * @throws IOException if the file cannot be opened.
+     */
+    public static LineInput open(Path script) throws IOException {
+        return new LineInput(FileChannel.open(script, StandardOpenOption.READ), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the shared reader of standard input, in the default charset.
+     *
+     * @return the reader.
+     */
+    public static synchronized LineInput stdin() {
+        if (stdin == null) {
+            stdin = new LineInput(Channels.newChannel(System.in), Charset.defaultCharset());
+        }
+        return stdin;
+    }
+
+    /**
+     * Reads the next line.
+     *
+     * @return the line without its end of line, or null at the end of the
+     * input.
+     * @throws IOException if the input cannot be read.
+     */
+    public String readLine() throws IOException {
+        while (true) {
+            while (this.chars.hasRemaining()) {
+                char c = this.chars.get();
+                if (c == '\n') {
+                    return takeLine();
+                }
+                this.line.append(c);
+            }
+            if (this.eof) {
+                return this.line.length() > 0 ? takeLine() : null;
+            }
+            fill();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Reads and decodes the next block of bytes.
+     */
+    private void fill() throws IOException {
+        this.chars.clear();
+        if (this.channel.read(this.bytes) < 0) {
+            this.eof = true;
+        }
+        this.bytes.flip();
+        this.decoder.decode(this.bytes, this.chars, this.eof);
+        if (this.eof) {
+            this.decoder.flush(this.chars);
+        }
+        this.bytes.compact();
+        this.chars.flip();
+    }
+
+    private String takeLine() {
+        int end = this.line.length();
+        if (end > 0 && this.line.charAt(end - 1) == '\r') {
+            end--;
+        }
+        String text = this.line.substring(0, end);
+        this.line.setLength(0);
+        return text;
+    }
+}
@@ -1,7 +1,17 @@
 package wordlegame;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.util.Scanner;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * MainWordleGame - Main entry point for running the Wordle game. This class
@@ -11,28 +21,218 @@ import java.util.Scanner;
  */
 public class MainWordleGame {
 
+    /**
+     * Number of secret words kept when the word list is sampled with
+     * {@code --stream}.
+     */
+    private static final int STREAM_SAMPLE_SIZE = 1024;
+
+    /**
+     * Number of games played by {@code --simulate} without a count.
+     */
+    private static final long DEFAULT_SIMULATED_GAMES = 1_000_000;
+
     /**
      * Main method to start the Wordle game, handle user input for new games,
      * and manage game flow with options to start new games or exit. If the user
      * provides invalid responses multiple times, an "apocalypse" is triggered.
      *
-     * @param args Command line arguments (not used in this case).
+     * @param args Command line arguments: an optional path to the word list
+     * and {@code --stream} to sample the secret words from the file instead
+     * of loading the whole dictionary (for very large word lists), or
+     * {@code --serve[=port]} to host games over TCP (see {@link WordleServer}),
+     * {@code --hints} to show how many words are still possible after each
+     * guess, and {@code --solver} to also suggest the best next guess.
+     * {@code --simulate[=games]} plays that many games without a player (see
+     * {@link Simulator}) with the strategy given by
+     * {@code --strategy=random|opener:WORD|solver} (random by default) and
+     * prints the results. {@code --daily} makes the first game use the word
+     * of the day (see {@link SecretScheduler}) and {@code --no-color} prints
+     * the board without ANSI codes (see {@link BoardRenderer}).
+     * {@code --metrics} prints the counters and latencies of every phase at
+     * the end (see {@link Metrics}). {@code --script=FILE} (or {@code -} for
+     * standard input) plays the guesses and SI/NO answers of a script at full
+     * speed, without the board, and prints one line per finished game in the
+     * journal format (see {@link GameRecord}), {@code REJECTED}, the line and
+     * the reason for every rejected guess, {@code ABANDONED}, the secret word
+     * and the guesses for a game the script did not finish, and
+     * {@code UNEXPECTED} and the line for anything but SI/NO where an answer
+     * was expected, separated by tabs; {@code --seed=N} makes the secret
+     * words, and the games of {@code --simulate}, repeatable.
+     * {@code --length=N} plays words of N letters (4 to 8, see
+     * {@link DictionaryShards}) and {@code --tries=N} allows N attempts per
+     * game (5 letters and 6 attempts by default). The solver
+     * keeps every feedback of the dictionary in a file (see
+     * {@link FeedbackMatrix}) unless it would be larger than
+     * {@link FeedbackMatrix#DEFAULT_MAX_BYTES}; {@code --matrix} builds it
+     * whatever its size.
      * @throws java.io.IOException
      */
     public static void main(String[] args) throws IOException {
         boolean gameOver = false; // Flag to determine whether the game should continue or not.
-        Scanner key_bord = new Scanner(System.in); // Scanner for reading user input.
         String answar; // User response to whether they want to play another game.
         int gameCounter = 1; // Counter to track the number of games played.
         int apocalipsis = 0; // Counter for invalid responses, triggers apocalypse after 3 invalid answers.
         String filePath = "secretWords5.txt"; // Change path to your txt file path
-        final String[] SECRETWORD = WordleGame.pickWords(filePath);
+        boolean streaming = false; // Sample the secret words instead of loading the dictionary.
+        int serverPort = -1; // Port of the multi-player server, -1 to play in the console.
+        boolean hints = false; // Show how many words are still possible after each guess.
+        boolean solve = false; // Also suggest the guess with the most information.
+        long simulatedGames = -1; // Games to simulate, -1 to play in the console.
+        String strategy = "random"; // Strategy of the simulated player.
+        boolean daily = false; // First game with the word of the day.
+        boolean metrics = false; // Print the metrics snapshot at the end.
+        String script = null; // Script with the guesses and answers, null to play in the console.
+        Long seed = null; // Seed of the secret words, null for a random one.
+        int wordLength = 5; // Letters of the words of every game.
+        int maxTries = WordleGame.DEFAULT_MAX_TRIES; // Attempts of every game.
+        boolean matrix = false; // Build the feedback matrix whatever its size.
+
+        for (String arg : args) {
+            if (arg.equals("--stream")) {
+                streaming = true;
+            } else if (arg.equals("--hints")) {
+                hints = true;
+            } else if (arg.equals("--solver")) {
+                hints = true;
+                solve = true;
+            } else if (arg.equals("--serve")) {
+                serverPort = WordleServer.DEFAULT_PORT;
+            } else if (arg.startsWith("--serve=")) {
+                serverPort = Integer.parseInt(arg.substring("--serve=".length()));
+            } else if (arg.equals("--simulate")) {
+                simulatedGames = DEFAULT_SIMULATED_GAMES;
+            } else if (arg.startsWith("--simulate=")) {
+                simulatedGames = Long.parseLong(arg.substring("--simulate=".length()));
+            } else if (arg.startsWith("--script=")) {
+                script = arg.substring("--script=".length());
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else if (arg.equals("--matrix")) {
+                matrix = true;
+            } else if (arg.equals("--metrics")) {
+                metrics = true;
+            } else if (arg.equals("--no-color")) {
+                System.setProperty(BoardRenderer.COLOR_PROPERTY, "false");
+            } else if (arg.equals("--daily")) {
+                daily = true;
+            } else if (arg.startsWith("--length=")) {
+                wordLength = Integer.parseInt(arg.substring("--length=".length()));
+            } else if (arg.startsWith("--tries=")) {
+                maxTries = Integer.parseInt(arg.substring("--tries=".length()));
+            } else if (arg.startsWith("--strategy=")) {
+                strategy = arg.substring("--strategy=".length());
+            } else {
+                filePath = arg;
+            }
+        }
+
+        if (!DictionaryShards.isSupported(wordLength)) {
+            System.err.printf("Error: la longitud de las palabras debe estar entre %d y %d\n",
+                    DictionaryShards.MIN_LENGTH, DictionaryShards.MAX_LENGTH);
+            return;
+        }
+        if (maxTries < 1) {
+            System.err.print("Error: el numero de intentos debe ser al menos 1\n");
+            return;
+        }
+
+        final WordList SECRETWORD;
+        final GuessValidator validator;
+        final DictionaryShards shards = new DictionaryShards(Path.of(filePath));
+        if (streaming) {
+            // One pass over the file, keeping only a fixed-size random sample.
+            // The sample is not the whole dictionary, so any word of the right length is accepted.
+            SECRETWORD = ReservoirSampler.sample(Path.of(filePath), wordLength, STREAM_SAMPLE_SIZE,
+                    new SplittableRandom());
+            validator = new GuessValidator(wordLength, null);
+        } else {
+            // Only the words of this length, compiled and memory-mapped; rebuilt when the txt changes.
+            DictionaryShards.Shard shard = shards.shard(wordLength);
+            SECRETWORD = shard.words();
+            validator = shard.validator();
+        }
+
+        if (serverPort >= 0) {
+            // Headless mode: host many games over TCP instead of playing here.
+            WordleServer server = streaming
+                    ? new WordleServer(new SecretScheduler(SECRETWORD), validator, maxTries, GameJournal.defaultJournal())
+                    : new WordleServer(shards, wordLength, maxTries, GameJournal.defaultJournal());
+            server.serve(serverPort);
+            return;
+        }
+
+        if (simulatedGames >= 0) {
+            // Headless mode: many games played by a strategy on every core.
+            CandidateIndex index = new CandidateIndex(SECRETWORD, wordLength);
+            Supplier<Simulator.Strategy> strategies;
+            if (strategy.equals("solver")) {
+                Solver simulatedSolver = new Solver(SECRETWORD, wordLength);
+                if (!streaming) {
+                    useMatrix(simulatedSolver, SECRETWORD, Path.of(filePath), wordLength, matrix);
+                }
+                strategies = Simulator.solver(index, simulatedSolver);
+            } else if (strategy.startsWith("opener:")) {
+                GuessValidator.Verdict verdict = validator.check(strategy.substring("opener:".length()));
+                if (verdict != GuessValidator.Verdict.VALID) {
+                    System.err.print(verdict.message(wordLength) + "\n");
+                    return;
+                }
+                strategies = Simulator.opener(index, strategy.substring("opener:".length()));
+            } else if (strategy.equals("random")) {
+                strategies = Simulator.random(index);
+            } else {
+                System.err.print("Error: estrategia desconocida " + strategy + " (random, opener:PALABRA o solver)\n");
+                return;
+            }
+            new Simulator(index, validator, maxTries, strategies).run(simulatedGames,
+                    seed != null ? seed : System.nanoTime()).print(System.out);
+            if (metrics) {
+                Metrics.global().print(System.out);
+            }
+            return;
+        }
+
+        // Index for the hints, built once for every game.
+        final CandidateIndex hintIndex = hints ? new CandidateIndex(SECRETWORD, wordLength) : null;
+        final Solver solver = solve ? new Solver(SECRETWORD, wordLength) : null;
+        if (solver != null && !streaming) {
+            OpeningBook.load(Path.of(filePath), wordLength, solver); // precomputed first guess, if any
+            useMatrix(solver, SECRETWORD, Path.of(filePath), wordLength, matrix);
+        }
+        // The player's secret words: no repeats until the whole list has been played.
+        final SecretScheduler scheduler = new SecretScheduler(SECRETWORD);
+        final SecretScheduler.Bag secrets = seed != null ? scheduler.newBag(seed) : scheduler.newBag();
+
+        // One shared reader for every game and answer (the console or the script).
+        final boolean scripted = script != null;
+        final LineInput input = scripted && !script.equals("-") ? LineInput.open(Path.of(script)) : LineInput.stdin();
+        // A script only prints its results: the messages go nowhere and the games are not saved.
+        final PrintStream console = scripted ? new PrintStream(OutputStream.nullOutputStream()) : System.out;
+        final PrintWriter results = scripted
+                ? new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16))
+                : null;
+        final GameJournal journal = scripted ? null : GameJournal.defaultJournal();
+        final int tries = maxTries;
+        final Function<String, WordleGame> games = secret -> {
+            WordleGame game = new WordleGame(SECRETWORD, validator, journal, hintIndex, solver, secret, tries, input,
+                    scripted
+                    ? new BoardRenderer(console, validator.wordLength(), tries, false)
+                    : BoardRenderer.console(validator.wordLength(), tries));
+            if (scripted) {
+                game.scripted((word, verdict) -> results.println("REJECTED\t" + word + "\t" + verdict));
+            }
+            return game;
+        };
 
         // Create the initial game instance with the provided list of secret words.
-        WordleGame newGame = new WordleGame(SECRETWORD);
+        String firstSecret = daily ? scheduler.daily(LocalDate.now()) : secrets.next();
+        WordleGame newGame = games.apply(firstSecret);
 
         /* Start the first game */
         newGame.start(); // Start the first game.
+        report(results, newGame);
+        String pending = newGame.answer(); // Answer a script gave before the game was over.
 
         /*
          * Game loop to ask the player if they want to play another game after the
@@ -41,22 +241,34 @@ public class MainWordleGame {
         do {
 
             // Prompt the user for a response to start a new game or exit.
-            System.out.print("\nUna partida extra? contesta solo SI o NO :");
-            answar = key_bord.nextLine().toUpperCase(); // Read input and convert to uppercase for consistency.
+            console.print("\nUna partida extra? contesta solo SI o NO :");
+            console.flush();
+            if (pending != null) {
+                answar = pending;
+                pending = null;
+            } else {
+                answar = input.readLine(); // Read input and convert to uppercase for consistency.
+            }
+            if (answar == null) {
+                break; // End of the input (or of the script).
+            }
+            answar = answar.toUpperCase();
 
             switch (answar) {
                 case "SI":
                     // If the user answers "SI" (yes), increment the game counter and start a new
                     // game.
                     gameCounter++;
-                    System.out.printf("\nComenzando %dº Partida.....\n\n", gameCounter); // Display the game number.
-                    newGame = new WordleGame(SECRETWORD); // Create a new game instance.
+                    console.printf("\nComenzando %dº Partida.....\n\n", gameCounter); // Display the game number.
+                    newGame = games.apply(secrets.next()); // Create a new game instance.
                     newGame.start(); // Start the new game.
+                    report(results, newGame);
+                    pending = newGame.answer();
                     break;
 
                 case "NO":
                     // If the user answers "NO", end the game loop and print a closing message.
-                    System.out.print(
+                    console.print(
                             "\nEspero que te haya gustado mi juego (APRUEBAME PLEASE,SOLO SE ACEPTA UN 10 DE NOTA)\n");
                     gameOver = true; // Set gameOver to false to exit the loop.
 
@@ -66,23 +278,90 @@ public class MainWordleGame {
                     // If the user enters an invalid response (not "SI" or "NO"), print an error
                     // message.
 
-                    System.err.print("\nError:solo se admite como respuesta SI o NO\n");
+                    System.err.print("\nError:solo se admite como respuesta SI o NO" + (scripted ? ": " + answar : "")
+                            + "\n");
+                    if (scripted) {
+                        results.println("UNEXPECTED\t" + answar);
+                    }
                     apocalipsis++; // Increment the invalid response counter.
                     if (apocalipsis == 2) {
-                        System.out.print(
+                        console.print(
                                 "Porfavor conteste solo con si o no, en caso contarario el resultado será fatal");
 
                     }
 
                     // If the user gives 3 invalid responses, trigger the "apocalypse" sequence.
-                    if (apocalipsis == 3) {
+                    if (apocalipsis == 3 && !scripted) {
                         WordleGame.apocalipsis(); // Execute the apocalypse action (kill all running processes).
                     }
                     break;
             }
 
         } while (!gameOver); // Continue the loop while the game is ongoing.
-        key_bord.close();
+        if (results != null) {
+            results.flush();
+        }
+        if (scripted && !script.equals("-")) {
+            input.close();
+        }
+        if (metrics) {
+            Metrics.global().print(scripted ? System.err : System.out); // keep the results stream clean
+        }
 
     }
+
+    /**
+     * Gives the solver the feedback matrix of the dictionary, built on first
+     * use, unless the words are too long for it or the file would be too
+     * large; the solver then scores on the fly.
+     *
+     * @param solver the solver.
+     * @param words the dictionary.
+     * @param source the text word list, next to which the matrix is kept.
+     * @param wordLength the word length.
+     * @param force whether to build it whatever its size.
+     * @throws IOException if the matrix cannot be read or written.
+     */
+    private static void useMatrix(Solver solver, WordList words, Path source, int wordLength, boolean force)
+            throws IOException {
+        long maxBytes = force ? Long.MAX_VALUE : FeedbackMatrix.DEFAULT_MAX_BYTES;
+        // Every feedback precomputed once, on disk; rebuilt when the dictionary changes.
+        FeedbackMatrix matrix = FeedbackMatrix.openOrBuild(words, FeedbackMatrix.matrixPath(source, wordLength),
+                maxBytes);
+        if (matrix != null) {
+            solver.useMatrix(matrix);
+        } else if (wordLength <= FeedbackMatrix.MAX_WORD_LENGTH) {
+            System.err.printf("Diccionario demasiado grande para la matriz de feedback (%d MB), se calcula al vuelo;"
+                    + " usa --matrix para crearla\n", FeedbackMatrix.bytes(words.size()) >> 20);
+        }
+    }
+
+    /**
+     * Prints the result of a game to the results of a script: one line in
+     * the journal format if it is over, or {@code ABANDONED}, the secret word
+     * and the guesses made if the script did not finish it.
+     *
+     * @param results the results stream, or null when not playing a script.
+     * @param game the game.
+     */
+    private static void report(PrintWriter results, WordleGame game) {
+        if (results == null) {
+            return;
+        }
+        GameRecord record = game.result();
+        if (record != null) {
+            results.println(record.toLine());
+            return;
+        }
+        GameSession session = game.session();
+        StringBuilder line = new StringBuilder("ABANDONED\t").append(session.secretWord()).append('\t');
+        for (int i = 0; i < session.tries(); i++) {
+            if (i > 0) {
+                line.append(' ');
+            }
+            line.append(session.guessAt(i)).append(':')
+                    .append(Feedback.pattern(session.feedbackAt(i), session.wordLength()));
+        }
+        results.println(line);
+    }
 }
@@ -0,0 +1,154 @@
+package wordlegame;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * MappedDictionary - {@link WordList} over a binary dictionary written by
+ * {@link DictionaryCompiler}.
+ *
+ * The file is memory-mapped instead of parsed, so opening it takes the same
+ * time for a hundred words as for hundreds of thousands, and the words live
+ * in the page cache rather than on the heap.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class MappedDictionary implements WordList {
+
+    /**
+     * Read-only view of the whole file.
+     */
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Number of letters of every word.
+     */
+    private final int wordLength;
+
+    /**
+     * Number of words in the file.
+     */
+    private final int size;
+
+    private MappedDictionary(MappedByteBuffer buffer, int wordLength, int size) {
+        this.buffer = buffer;
+        this.wordLength = wordLength;
+        this.size = size;
+    }
+
+    /**
+     * Maps a binary dictionary file.
+     *
+     * @param file the file written by {@link DictionaryCompiler}.
+     * @return the mapped dictionary.
+     * @throws IOException if the file cannot be read or is not a valid
+     * dictionary.
+     */
+    public static MappedDictionary open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long bytes = channel.size();
+            if (bytes < DictionaryCompiler.HEADER_BYTES) {
+                throw new IOException("Not a dictionary file: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes);
+            if (buffer.getInt(0) != DictionaryCompiler.MAGIC || buffer.getInt(4) != DictionaryCompiler.VERSION) {
+                throw new IOException("Not a dictionary file: " + file);
+            }
+            int wordLength = buffer.getInt(8);
+            int size = buffer.getInt(12);
+            if (size < 0 || DictionaryCompiler.HEADER_BYTES + (long) size * Long.BYTES != bytes) {
+                throw new IOException("Truncated dictionary file: " + file);
+            }
+            return new MappedDictionary(buffer, wordLength, size);
+        }
+    }
+
+    /**
+     * Opens the binary dictionary compiled from a text word list,
+     * (re)compiling it first if it is missing or older than the text file.
+     * The binary file sits next to the text one, named after it and the word
+     * length, for example {@code secretWords5-5.dict}.
+     *
+     * @param source the text word list, for example secretWords5.txt.
+     * @param wordLength the number of letters every word must have.
+     * @return the mapped dictionary.
+     * @throws IOException if the word list cannot be compiled or contains no
+     * valid words.
+     */
+    public static MappedDictionary openCompiled(Path source, int wordLength) throws IOException {
+        Path compiled = compiledPath(source, wordLength);
+        if (!Files.exists(compiled)
+                || Files.getLastModifiedTime(compiled).compareTo(Files.getLastModifiedTime(source)) < 0) {
+            DictionaryCompiler.compile(source, compiled, wordLength);
+        }
+        MappedDictionary dictionary = open(compiled);
+        if (dictionary.size == 0) {
+            throw new IOException("The file is empty or does not contain words.");
+        }
+        return dictionary;
+    }
+
+    /**
+     * Returns the path of the binary dictionary compiled from a text file.
+     *
+     * @param source the text word list.
+     * @param wordLength the number of letters of the compiled words.
+     * @return the sibling path ending in {@code -<length>.dict}.
+     */
+    static Path compiledPath(Path source, int wordLength) {
+        String name = source.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return source.resolveSibling(base + "-" + wordLength + ".dict");
+    }
+
+    /**
+     * Returns the number of letters of every word in the dictionary.
+     *
+     * @return the word length.
+     */
+    public int wordLength() {
+        return this.wordLength;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public long packedAt(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return this.buffer.getLong(DictionaryCompiler.HEADER_BYTES + index * Long.BYTES);
+    }
+
+    /**
+     * Checks whether a word is in the dictionary, using a binary search over
+     * the sorted file.
+     *
+     * @param packed the packed word.
+     * @return true if the word is in the dictionary.
+     */
+    public boolean contains(long packed) {
+        int low = 0;
+        int high = this.size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long word = this.buffer.getLong(DictionaryCompiler.HEADER_BYTES + mid * Long.BYTES);
+            if (word < packed) {
+                low = mid + 1;
+            } else if (word > packed) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+}
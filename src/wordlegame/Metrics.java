@@ -0,0 +1,255 @@
+package wordlegame;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Metrics - Counters and latency histograms of the game engine, shared by
+ * every game in the JVM.
+ *
+ * The counters are {@link LongAdder}s and the histograms
+ * {@link LatencyHistogram}s, so sessions on many threads record without
+ * contending. Every timed phase is also sent to Java Flight Recorder as a
+ * {@code wordlegame.Phase} event, and every finished game as a
+ * {@code wordlegame.Game} event, when a recording is running, for example:
+ * {@code java -XX:StartFlightRecording:filename=wordle.jfr ...}. A snapshot
+ * can be printed at any time ({@link #print(PrintStream)}), is sent by the
+ * server's {@code METRICS} command, and is printed at exit with
+ * {@code --metrics}.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class Metrics {
+
+    /**
+     * Timed phases of a game.
+     */
+    public enum Phase {
+        /**
+         * Reading a line typed by the player (includes the wait).
+         */
+        INPUT,
+        /**
+         * Checking that a guess is a valid word.
+         */
+        VALIDATION,
+        /**
+         * Scoring a guess against the secret word.
+         */
+        SCORING,
+        /**
+         * Writing a turn to the console.
+         */
+        RENDER,
+        /**
+         * Writing a batch of finished games to the journal, with the sync.
+         */
+        PERSIST,
+        /**
+         * Running one command of the server.
+         */
+        COMMAND
+    }
+
+    /**
+     * Events counted.
+     */
+    public enum Counter {
+        GAMES_STARTED, GAMES_WON, GAMES_LOST, GUESSES, INVALID_INPUTS
+    }
+
+    /**
+     * JFR event with the duration of one phase.
+     */
+    @Name("wordlegame.Phase")
+    @Label("Wordle Phase")
+    @Category("Wordle")
+    @Description("Duration of one phase of a game")
+    static final class PhaseEvent extends Event {
+
+        @Label("Phase")
+        String phase;
+
+        // Not "duration": that name belongs to the event's own timing field.
+        @Label("Phase Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long phaseTime;
+    }
+
+    /**
+     * JFR event of a finished game.
+     */
+    @Name("wordlegame.Game")
+    @Label("Wordle Game")
+    @Category("Wordle")
+    @Description("A game that ended")
+    static final class GameEvent extends Event {
+
+        @Label("Secret Word")
+        String secretWord;
+
+        @Label("Won")
+        boolean won;
+
+        @Label("Tries")
+        int tries;
+    }
+
+    /**
+     * Metrics of this JVM.
+     */
+    private static final Metrics GLOBAL = new Metrics();
+
+    /**
+     * Histograms, by phase ordinal.
+     */
+    private final LatencyHistogram[] phases;
+
+    /**
+     * Counters, by counter ordinal.
+     */
+    private final LongAdder[] counters;
+
+    private Metrics() {
+        this.phases = new LatencyHistogram[Phase.values().length];
+        for (int i = 0; i < this.phases.length; i++) {
+            this.phases[i] = new LatencyHistogram();
+        }
+        this.counters = new LongAdder[Counter.values().length];
+        for (int i = 0; i < this.counters.length; i++) {
+            this.counters[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Returns the metrics of this JVM.
+     *
+     * @return the shared registry.
+     */
+    public static Metrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Returns the current time, to be passed to {@link #stop(Phase, long)}
+     * at the end of the phase.
+     *
+     * @return the start time in nanoseconds.
+     */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the end of a phase.
+     *
+     * @param phase the phase.
+     * @param start the value returned by {@link #start()} when it began.
+     */
+    public void stop(Phase phase, long start) {
+        long duration = System.nanoTime() - start;
+        this.phases[phase.ordinal()].record(duration);
+        PhaseEvent event = new PhaseEvent();
+        if (event.isEnabled()) {
+            event.phase = phase.name();
+            event.phaseTime = duration;
+            event.commit();
+        }
+    }
+
+    /**
+     * Adds one to a counter.
+     *
+     * @param counter the counter.
+     */
+    public void increment(Counter counter) {
+        this.counters[counter.ordinal()].increment();
+    }
+
+    /**
+     * Counts a finished game and sends its JFR event.
+     *
+     * @param session the game, already won or lost.
+     */
+    public void gameOver(GameSession session) {
+        boolean won = session.status() == GameSession.Status.WON;
+        increment(won ? Counter.GAMES_WON : Counter.GAMES_LOST);
+        GameEvent event = new GameEvent();
+        if (event.isEnabled()) {
+            event.secretWord = session.secretWord();
+            event.won = won;
+            event.tries = session.tries();
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns the value of a counter.
+     *
+     * @param counter the counter.
+     * @return its current value.
+     */
+    public long count(Counter counter) {
+        return this.counters[counter.ordinal()].sum();
+    }
+
+    /**
+     * Returns the histogram of a phase.
+     *
+     * @param phase the phase.
+     * @return its histogram.
+     */
+    public LatencyHistogram latency(Phase phase) {
+        return this.phases[phase.ordinal()];
+    }
+
+    /**
+     * Returns a snapshot on a single line, as sent by the server:
+     * {@code counter=value ...} then
+     * {@code phase=count/p50/p99/p999/max} with the times in microseconds.
+     *
+     * @return the snapshot.
+     */
+    public String snapshot() {
+        StringBuilder line = new StringBuilder();
+        for (Counter counter : Counter.values()) {
+            line.append(counter.name().toLowerCase(Locale.ROOT)).append('=').append(count(counter)).append(' ');
+        }
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram histogram = latency(phase);
+            line.append(phase.name().toLowerCase(Locale.ROOT)).append('=').append(histogram.count())
+                    .append(String.format(Locale.ROOT, "/%.1f/%.1f/%.1f/%.1f", histogram.percentile(50) / 1e3,
+                            histogram.percentile(99) / 1e3, histogram.percentile(99.9) / 1e3,
+                            histogram.max() / 1e3))
+                    .append(' ');
+        }
+        return line.toString().trim();
+    }
+
+    /**
+     * Prints a snapshot as a table.
+     *
+     * @param out where to print it.
+     */
+    public void print(PrintStream out) {
+        out.print("\nContadores:\n");
+        for (Counter counter : Counter.values()) {
+            out.printf("  %-15s %d\n", counter.name().toLowerCase(Locale.ROOT), count(counter));
+        }
+        out.print("\nLatencias (microsegundos):\n");
+        out.printf("  %-11s %10s %10s %10s %10s %10s %10s\n", "fase", "n", "media", "p50", "p99", "p99.9", "max");
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram histogram = latency(phase);
+            out.printf("  %-11s %10d %10.1f %10.1f %10.1f %10.1f %10.1f\n", phase.name().toLowerCase(Locale.ROOT),
+                    histogram.count(), histogram.mean() / 1e3, histogram.percentile(50) / 1e3,
+                    histogram.percentile(99) / 1e3, histogram.percentile(99.9) / 1e3, histogram.max() / 1e3);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package wordlegame;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * OpeningBook - Offline job that finds the best first guesses for a word
+ * list.
+ *
+ * Every dictionary word is scored against every possible secret word with
+ * the {@link Solver} (in parallel, on all cores, without a time limit, using
+ * the {@link FeedbackMatrix} of the dictionary, built if needed) and the
+ * words with the highest entropy are written, best first, next to the word
+ * list as {@code <name>-<length>.openers}. The game uses the first one as
+ * the solver's suggestion before any guess, so it does not need to be
+ * computed while playing. The average entropy is also printed, as a measure
+ * of how hard the dictionary is.
+ *
+ * Usage: {@code java wordlegame.OpeningBook [secretWords5.txt] [top] [length]}
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class OpeningBook {
+
+    /**
+     * Number of opening guesses written by default.
+     */
+    private static final int DEFAULT_TOP = 20;
+
+    private OpeningBook() {
+    }
+
+    /**
+     * Command line entry point.
+     *
+     * @param args the word list (secretWords5.txt by default), the number
+     * of opening guesses to keep and the word length (5 by default).
+     * @throws IOException if the word list cannot be read or the result
+     * cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Path source = Path.of(args.length > 0 ? args[0] : "secretWords5.txt");
+        int top = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TOP;
+        int wordLength = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        if (!DictionaryShards.isSupported(wordLength)) {
+            System.err.printf("La longitud debe estar entre %d y %d\n", DictionaryShards.MIN_LENGTH,
+                    DictionaryShards.MAX_LENGTH);
+            System.exit(1);
+        }
+
+        MappedDictionary dictionary = MappedDictionary.openCompiled(source, wordLength);
+        Solver solver = new Solver(dictionary, wordLength);
+        FeedbackMatrix matrix = FeedbackMatrix.openOrBuild(dictionary, FeedbackMatrix.matrixPath(source, wordLength),
+                FeedbackMatrix.DEFAULT_MAX_BYTES);
+        if (matrix != null) {
+            solver.useMatrix(matrix);
+        }
+        long start = System.nanoTime();
+        double[] entropies = solver.search(solver.allWords(), Long.MAX_VALUE).entropies();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        List<Integer> ranking = new ArrayList<>();
+        double total = 0;
+        for (int i = 0; i < entropies.length; i++) {
+            ranking.add(i);
+            total += entropies[i];
+        }
+        ranking.sort(Comparator.comparingDouble((Integer i) -> -entropies[i]).thenComparing(i -> i));
+
+        Path target = bookPath(source, wordLength);
+        try (PrintWriter pw = new PrintWriter(Files.newBufferedWriter(target, StandardCharsets.UTF_8))) {
+            for (int i = 0; i < Math.min(top, ranking.size()); i++) {
+                int word = ranking.get(i);
+                pw.printf(Locale.ROOT, "%s\t%.6f\n", solver.wordAt(word), entropies[word]);
+                System.out.printf("%2d. %s  %.3f bits\n", i + 1, solver.wordAt(word), entropies[word]);
+            }
+        }
+        System.out.printf("\n%d palabras evaluadas en %d ms; entropia media %.3f bits (max %.3f)\n",
+                entropies.length, millis, total / entropies.length, Math.log(entropies.length) / Math.log(2));
+        System.out.printf("Aperturas guardadas en %s\n", target);
+    }
+
+    /**
+     * Loads the best opening guess of a word list into a solver, if the
+     * opening book exists and is newer than the word list.
+     *
+     * @param source the word list.
+     * @param wordLength the number of letters of the words.
+     * @param solver the solver that will use the opening.
+     * @return true if an opening was loaded.
+     * @throws IOException if the opening book cannot be read.
+     */
+    public static boolean load(Path source, int wordLength, Solver solver) throws IOException {
+        Path book = bookPath(source, wordLength);
+        if (!Files.exists(book)
+                || Files.getLastModifiedTime(book).compareTo(Files.getLastModifiedTime(source)) < 0) {
+            return false;
+        }
+        try (BufferedReader br = Files.newBufferedReader(book, StandardCharsets.UTF_8)) {
+            String line = br.readLine();
+            if (line == null) {
+                return false;
+            }
+            String[] fields = line.split("\t");
+            solver.useOpening(fields[0], Double.parseDouble(fields[1]));
+            return true;
+        }
+    }
+
+    /**
+     * Returns the path of the opening book of a word list.
+     *
+     * @param source the word list.
+     * @param wordLength the number of letters of the words.
+     * @return the sibling path ending in {@code -<length>.openers}.
+     */
+    static Path bookPath(Path source, int wordLength) {
+        String name = source.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return source.resolveSibling(base + "-" + wordLength + ".openers");
+    }
+}
@@ -0,0 +1,134 @@
+package wordlegame;
+
+/**
+ * PackedWord - Stores a whole word in a single {@code long}.
+ *
+ * Each letter takes 5 bits (its {@link Letters} code plus one, so 0 means
+ * "no letter") starting from the lowest bits, and the word length is kept in
+ * the top 4 bits. Packed words of the same length sort in a stable order and
+ * can be compared, hashed and stored without creating any String.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class PackedWord {
+
+    /**
+     * Longest word that fits in a packed long.
+     */
+    public static final int MAX_LENGTH = 12;
+
+    /**
+     * Value returned by {@link #pack(CharSequence)} for words that cannot be
+     * packed.
+     */
+    public static final long INVALID = -1L;
+
+    /**
+     * Bits used by each letter.
+     */
+    private static final int BITS = 5;
+
+    /**
+     * Position of the length field.
+     */
+    private static final int LENGTH_SHIFT = 60;
+
+    private PackedWord() {
+    }
+
+    /**
+     * Packs a word, ignoring case.
+     *
+     * @param word the word to pack.
+     * @return the packed word, or {@link #INVALID} if it is empty, longer
+     * than {@link #MAX_LENGTH} or contains characters that are not letters.
+     */
+    public static long pack(CharSequence word) {
+        return pack(word, 0, word.length());
+    }
+
+    /**
+     * Packs the characters {@code start} (inclusive) to {@code end}
+     * (exclusive) of a text, ignoring case.
+     *
+     * @param text the text containing the word.
+     * @param start index of the first letter.
+     * @param end index after the last letter.
+     * @return the packed word, or {@link #INVALID} if it is empty, longer
+     * than {@link #MAX_LENGTH} or contains characters that are not letters.
+     */
+    public static long pack(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length <= 0 || length > MAX_LENGTH) {
+            return INVALID;
+        }
+        long packed = (long) length << LENGTH_SHIFT;
+        for (int i = 0; i < length; i++) {
+            int code = Letters.code(text.charAt(start + i));
+            if (code < 0) {
+                return INVALID;
+            }
+            packed |= (long) (code + 1) << (i * BITS);
+        }
+        return packed;
+    }
+
+    /**
+     * Returns a packed word of the given length with no letters set yet, to
+     * be filled with {@link #withCode(long, int, int)}.
+     *
+     * @param length the word length.
+     * @return the empty packed word.
+     */
+    static long empty(int length) {
+        return (long) length << LENGTH_SHIFT;
+    }
+
+    /**
+     * Sets the letter at an empty position of a packed word.
+     *
+     * @param packed the packed word.
+     * @param position the letter position, starting at 0.
+     * @param code the {@link Letters} code of the letter.
+     * @return the packed word with the letter set.
+     */
+    static long withCode(long packed, int position, int code) {
+        return packed | (long) (code + 1) << (position * BITS);
+    }
+
+    /**
+     * Returns the number of letters of a packed word.
+     *
+     * @param packed the packed word.
+     * @return the word length.
+     */
+    public static int length(long packed) {
+        return (int) (packed >>> LENGTH_SHIFT);
+    }
+
+    /**
+     * Returns the letter code at a position of a packed word.
+     *
+     * @param packed the packed word.
+     * @param position the letter position, starting at 0.
+     * @return the {@link Letters} code of the letter.
+     */
+    public static int codeAt(long packed, int position) {
+        return (int) ((packed >>> (position * BITS)) & 0x1F) - 1;
+    }
+
+    /**
+     * Converts a packed word back to its uppercase text.
+     *
+     * @param packed the packed word.
+     * @return the word in uppercase.
+     */
+    public static String unpack(long packed) {
+        int length = length(packed);
+        char[] letters = new char[length];
+        for (int i = 0; i < length; i++) {
+            letters[i] = Letters.letter(codeAt(packed, i));
+        }
+        return new String(letters);
+    }
+}
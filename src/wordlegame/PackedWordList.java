@@ -0,0 +1,74 @@
+package wordlegame;
+
+import java.util.Arrays;
+
+/**
+ * PackedWordList - In-memory {@link WordList} backed by a {@code long[]}.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class PackedWordList implements WordList {
+
+    /**
+     * Packed words, one per element.
+     */
+    private final long[] words;
+
+    /**
+     * Creates a list over already packed words. The array is not copied.
+     *
+     * @param words the packed words.
+     */
+    public PackedWordList(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Normalizes a raw word array: words are uppercased, entries that are not
+     * made of exactly {@code wordLength} letters are dropped and duplicates
+     * are removed. The result is sorted by packed value.
+     *
+     * @param rawWords the words as read from a file.
+     * @param wordLength the number of letters every word must have.
+     * @return the normalized list.
+     */
+    public static PackedWordList of(String[] rawWords, int wordLength) {
+        long[] packed = new long[rawWords.length];
+        int count = 0;
+        for (String word : rawWords) {
+            long p = PackedWord.pack(word);
+            if (p != PackedWord.INVALID && PackedWord.length(p) == wordLength) {
+                packed[count++] = p;
+            }
+        }
+        return new PackedWordList(sortedUnique(packed, count));
+    }
+
+    /**
+     * Sorts the first {@code count} packed words and removes duplicates.
+     *
+     * @param packed the packed words; modified in place.
+     * @param count the number of valid elements in the array.
+     * @return a new array with the sorted, unique words.
+     */
+    static long[] sortedUnique(long[] packed, int count) {
+        Arrays.sort(packed, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || packed[unique - 1] != packed[i]) {
+                packed[unique++] = packed[i];
+            }
+        }
+        return Arrays.copyOf(packed, unique);
+    }
+
+    @Override
+    public int size() {
+        return this.words.length;
+    }
+
+    @Override
+    public long packedAt(int index) {
+        return this.words[index];
+    }
+}
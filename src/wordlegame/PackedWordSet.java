@@ -0,0 +1,118 @@
+package wordlegame;
+
+/**
+ * PackedWordSet - Hash set of packed words (see {@link PackedWord}) for
+ * constant-time dictionary membership checks.
+ *
+ * Words are stored in a single {@code long[]} with open addressing and linear
+ * probing, kept at most half full. A packed word is never 0 (its length is
+ * always set), so 0 marks an empty slot.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class PackedWordSet {
+
+    /**
+     * Hash table; 0 means empty slot.
+     */
+    private final long[] slots;
+
+    /**
+     * Mask used to turn a hash into a slot index (table size minus one).
+     */
+    private final int mask;
+
+    /**
+     * Number of words in the set.
+     */
+    private int size;
+
+    /**
+     * Creates an empty set able to hold {@code capacity} words.
+     *
+     * @param capacity the maximum number of words expected.
+     */
+    public PackedWordSet(int capacity) {
+        int tableSize = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1;
+        this.slots = new long[tableSize];
+        this.mask = tableSize - 1;
+    }
+
+    /**
+     * Builds a set with every word of a list.
+     *
+     * @param words the dictionary.
+     * @return the set.
+     */
+    public static PackedWordSet of(WordList words) {
+        PackedWordSet set = new PackedWordSet(words.size());
+        for (int i = 0; i < words.size(); i++) {
+            set.add(words.packedAt(i));
+        }
+        return set;
+    }
+
+    /**
+     * Adds a word to the set.
+     *
+     * @param packed the packed word.
+     * @return true if the word was not already in the set.
+     * @throws IllegalStateException if the set is full.
+     */
+    public boolean add(long packed) {
+        if (this.size * 2 >= this.slots.length) {
+            throw new IllegalStateException("PackedWordSet is full");
+        }
+        int slot = slotOf(packed);
+        while (this.slots[slot] != 0L) {
+            if (this.slots[slot] == packed) {
+                return false;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        this.slots[slot] = packed;
+        this.size++;
+        return true;
+    }
+
+    /**
+     * Checks whether a word is in the set.
+     *
+     * @param packed the packed word.
+     * @return true if the word is in the set.
+     */
+    public boolean contains(long packed) {
+        int slot = slotOf(packed);
+        long current;
+        while ((current = this.slots[slot]) != 0L) {
+            if (current == packed) {
+                return true;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of words in the set.
+     *
+     * @return the number of words.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Spreads the bits of a packed word (MurmurHash3 finalizer) and maps it to
+     * a slot.
+     */
+    private int slotOf(long packed) {
+        long h = packed;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) h & this.mask;
+    }
+}
@@ -0,0 +1,143 @@
+package wordlegame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.random.RandomGenerator;
+
+/**
+ * ReservoirSampler - Picks secret words from a text word list of any size
+ * without loading it.
+ *
+ * The file is read once through a {@link FileChannel} into a fixed direct
+ * buffer and tokenized at byte level (UTF-8, words separated by whitespace).
+ * Valid words are packed on the fly and sampled by their hash (bottom-k
+ * sampling): every word gets a hash from a random seed and the words with
+ * the smallest hashes are kept. A word written several times in the file
+ * always gets the same hash, so it is kept at most once and has the same
+ * chance as any other word, and memory use depends only on the sample size.
+ * No String is created for the words read.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class ReservoirSampler {
+
+    /**
+     * Size of the read buffer.
+     */
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    /**
+     * First byte of the UTF-8 encoding of Ñ and ñ.
+     */
+    private static final int UTF8_LEAD = 0xC3;
+
+    private ReservoirSampler() {
+    }
+
+    /**
+     * Draws up to {@code sampleSize} different words of the file, keeping
+     * only the words made of exactly {@code wordLength} letters (A-Z, Ñ, any
+     * case).
+     *
+     * @param file the text word list (UTF-8).
+     * @param wordLength the number of letters every word must have.
+     * @param sampleSize the maximum number of words to keep.
+     * @param random the random generator used to sample.
+     * @return the sampled words, without repetitions, in random order; fewer
+     * than {@code sampleSize} if the file does not contain enough different
+     * valid words.
+     * @throws IOException if the file cannot be read or contains no valid
+     * words.
+     */
+    public static PackedWordList sample(Path file, int wordLength, int sampleSize, RandomGenerator random)
+            throws IOException {
+        long seed = random.nextLong();
+        // Sampled words by hash; the largest hash is the one replaced next.
+        TreeMap<Long, Long> reservoir = new TreeMap<>();
+        long threshold = Long.MAX_VALUE; // largest kept hash once the reservoir is full
+        long seen = 0; // valid words read so far
+
+        long packed = PackedWord.empty(wordLength); // letters of the current word
+        int letters = 0; // letters in the current word
+        boolean valid = true; // false once the current word has a non-letter
+        boolean lead = false; // previous byte was the first byte of Ñ/ñ
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            boolean eof = false;
+            while (!eof) {
+                buffer.clear();
+                eof = channel.read(buffer) < 0;
+                buffer.flip();
+                // At end of file a space is simulated so the last word is kept.
+                int limit = eof ? buffer.limit() + 1 : buffer.limit();
+
+                for (int i = 0; i < limit; i++) {
+                    int b = i < buffer.limit() ? buffer.get(i) & 0xFF : ' ';
+                    int code;
+                    if (lead) {
+                        lead = false;
+                        code = (b == 0x91 || b == 0xB1) ? Letters.code('\u00D1') : -1;
+                    } else if (b == UTF8_LEAD) {
+                        lead = true;
+                        continue;
+                    } else if (b == ' ' || (b >= '\t' && b <= '\r')) {
+                        // End of a word: keep it if it is valid.
+                        if (letters == wordLength && valid) {
+                            long hash = hash(packed, seed);
+                            if (reservoir.size() < sampleSize || hash < threshold) {
+                                if (reservoir.put(hash, packed) == null && reservoir.size() > sampleSize) {
+                                    reservoir.pollLastEntry();
+                                }
+                                if (reservoir.size() == sampleSize) {
+                                    threshold = reservoir.lastKey();
+                                }
+                            }
+                            seen++;
+                        }
+                        packed = PackedWord.empty(wordLength);
+                        letters = 0;
+                        valid = true;
+                        continue;
+                    } else {
+                        code = b < 0x80 ? Letters.code((char) b) : -1;
+                    }
+
+                    if (code < 0 || letters >= wordLength) {
+                        valid = false;
+                    } else {
+                        packed = PackedWord.withCode(packed, letters, code);
+                    }
+                    letters++;
+                }
+            }
+        }
+
+        if (seen == 0) {
+            throw new IOException("The file is empty or does not contain words.");
+        }
+        // In hash order, which is a random order of the words.
+        long[] words = new long[reservoir.size()];
+        int i = 0;
+        for (Map.Entry<Long, Long> entry : reservoir.entrySet()) {
+            words[i++] = entry.getValue();
+        }
+        return new PackedWordList(words);
+    }
+
+    /**
+     * Mixes a packed word with the seed (the SplitMix64 finalizer). Different
+     * words always get different hashes.
+     */
+    private static long hash(long packed, long seed) {
+        long z = packed + seed;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
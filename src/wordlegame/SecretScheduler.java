@@ -0,0 +1,216 @@
+package wordlegame;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * SecretScheduler - Chooses the secret words of the games.
+ *
+ * Every player (a console session, a server connection) gets its own
+ * {@link Bag}: a shuffle-bag over the dictionary indices that hands out every
+ * word once, in random order, before starting a new round, so a player does
+ * not see repeated words until the whole dictionary has been played. A bag has
+ * its own {@link SplittableRandom} and belongs to a single thread, so drawing
+ * a word takes no lock and shares nothing with the other players.
+ *
+ * The daily word is the same for everybody on the same day: the days walk a
+ * fixed shuffle of the dictionary, derived only from the daily seed, so it
+ * does not repeat for as many days as there are words. It changes if the
+ * dictionary changes.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class SecretScheduler {
+
+    /**
+     * Seed of the daily words when none is given.
+     */
+    public static final long DEFAULT_DAILY_SEED = 0x574F52444C45L;
+
+    /**
+     * Shuffle-bag of secret words for one player. Not thread-safe: every
+     * thread (or player) uses its own bag.
+     */
+    public static final class Bag {
+
+        private final WordList words;
+        private final SplittableRandom random;
+
+        /**
+         * Word indices; positions before {@link #drawn} were already handed
+         * out in this round. Created on the first draw.
+         */
+        private int[] order;
+        private int drawn;
+        private int last = -1;
+
+        /**
+         * Creates a bag.
+         *
+         * @param words the secret words.
+         * @param random the random generator of the bag.
+         */
+        public Bag(WordList words, SplittableRandom random) {
+            if (words.size() == 0) {
+                throw new IllegalArgumentException("There are no secret words");
+            }
+            this.words = words;
+            this.random = random;
+        }
+
+        /**
+         * Draws the next secret word.
+         *
+         * @return the word in uppercase.
+         */
+        public String next() {
+            return this.words.wordAt(nextIndex());
+        }
+
+        /**
+         * Draws the dictionary index of the next secret word.
+         *
+         * @return the index.
+         */
+        public int nextIndex() {
+            int size = this.words.size();
+            if (this.order == null) {
+                this.order = new int[size];
+                for (int i = 0; i < size; i++) {
+                    this.order[i] = i;
+                }
+            }
+            if (this.drawn == size) {
+                this.drawn = 0; // new round over the same permutation
+            }
+            // One Fisher-Yates step: a random word among the ones left.
+            swap(this.drawn, this.drawn + this.random.nextInt(size - this.drawn));
+            if (this.drawn == 0 && this.order[0] == this.last && size > 1) {
+                // The last word of a round must not open the next one.
+                swap(0, 1 + this.random.nextInt(size - 1));
+            }
+            this.last = this.order[this.drawn++];
+            return this.last;
+        }
+
+        private void swap(int i, int j) {
+            int word = this.order[i];
+            this.order[i] = this.order[j];
+            this.order[j] = word;
+        }
+    }
+
+    /**
+     * Shuffle of the dictionary walked by the daily words during one round
+     * of {@code words.size()} days.
+     */
+    private static final class DailyRound {
+
+        private final long round;
+        private final int[] order;
+
+        private DailyRound(long round, int[] order) {
+            this.round = round;
+            this.order = order;
+        }
+    }
+
+    /**
+     * Words used as secret words.
+     */
+    private final WordList words;
+
+    /**
+     * Seed of the daily words.
+     */
+    private final long dailySeed;
+
+    /**
+     * Shuffle of the current daily round; replaced, never modified.
+     */
+    private volatile DailyRound daily;
+
+    /**
+     * Creates a scheduler with the default daily seed.
+     *
+     * @param words the words used as secret words.
+     */
+    public SecretScheduler(WordList words) {
+        this(words, DEFAULT_DAILY_SEED);
+    }
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param words the words used as secret words.
+     * @param dailySeed the seed of the daily words; every scheduler with the
+     * same seed and words gives the same daily words.
+     */
+    public SecretScheduler(WordList words, long dailySeed) {
+        if (words.size() == 0) {
+            throw new IllegalArgumentException("There are no secret words");
+        }
+        this.words = words;
+        this.dailySeed = dailySeed;
+    }
+
+    /**
+     * Creates the bag of a new player, with its own random seed.
+     *
+     * @return the bag.
+     */
+    public Bag newBag() {
+        return new Bag(this.words, new SplittableRandom());
+    }
+
+    /**
+     * Creates a bag that always hands out the same words, for repeatable
+     * runs.
+     *
+     * @param seed the seed of the bag.
+     * @return the bag.
+     */
+    public Bag newBag(long seed) {
+        return new Bag(this.words, new SplittableRandom(seed));
+    }
+
+    /**
+     * Returns the word of the day.
+     *
+     * @param day the date.
+     * @return the secret word of that day, in uppercase.
+     */
+    public String daily(LocalDate day) {
+        int size = this.words.size();
+        long epochDay = day.toEpochDay();
+        long round = Math.floorDiv(epochDay, size);
+        DailyRound current = this.daily;
+        if (current == null || current.round != round) {
+            // Computing it twice in a race is harmless: the shuffle only
+            // depends on the seed and the round.
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            SplittableRandom random = new SplittableRandom(this.dailySeed + round * 0x9E3779B97F4A7C15L);
+            for (int i = size - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int word = order[i];
+                order[i] = order[j];
+                order[j] = word;
+            }
+            current = new DailyRound(round, order);
+            this.daily = current;
+        }
+        return this.words.wordAt(current.order[Math.floorMod(epochDay, size)]);
+    }
+
+    /**
+     * Returns the words used as secret words.
+     *
+     * @return the dictionary.
+     */
+    public WordList words() {
+        return this.words;
+    }
+}
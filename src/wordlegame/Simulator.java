@@ -0,0 +1,329 @@
+package wordlegame;
+
+import java.io.PrintStream;
+import java.nio.LongBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Simulator - Plays many games without a player, in parallel on every core,
+ * to measure the engine and compare guessing strategies.
+ *
+ * Every game picks a random secret word from the dictionary and asks a
+ * {@link Strategy} for the guesses, which go through a real
+ * {@link GameSession}. The games are split among fork-join tasks; each task
+ * has its own random generator (split from the seed, so a run can be
+ * repeated), its own strategy instance and its own {@link Report}, and the
+ * reports are merged at the end, so the games share no mutable state. After
+ * every guess the secret word must still be one of the candidate words
+ * (see {@link CandidateIndex}); when it is not, the scoring and the filtering
+ * disagree and the game is counted as inconsistent.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class Simulator {
+
+    /**
+     * Games played by a single fork-join task before it stops splitting.
+     */
+    private static final int GAMES_PER_TASK = 1024;
+
+    /**
+     * Chooses the guesses of a simulated player. An instance is used by a
+     * single thread at a time, so it can keep state between games.
+     */
+    public interface Strategy {
+
+        /**
+         * Chooses the next guess.
+         *
+         * @param candidates the words still possible, as a bitset over the
+         * dictionary; must not be modified.
+         * @param attempt the number of guesses already made.
+         * @param random the random generator of the current thread.
+         * @return a dictionary word.
+         */
+        String guess(long[] candidates, int attempt, SplittableRandom random);
+    }
+
+    /**
+     * Results of a set of simulated games.
+     */
+    public static final class Report {
+
+        private long games;
+        private long wins;
+        private long inconsistent;
+        private long guesses;
+        private long nanos;
+        private final long[] winsByTries;
+
+        private Report(int maxTries) {
+            this.winsByTries = new long[maxTries + 1];
+        }
+
+        private void merge(Report other) {
+            this.games += other.games;
+            this.wins += other.wins;
+            this.inconsistent += other.inconsistent;
+            this.guesses += other.guesses;
+            for (int i = 0; i < this.winsByTries.length; i++) {
+                this.winsByTries[i] += other.winsByTries[i];
+            }
+        }
+
+        /**
+         * Returns the number of games played.
+         *
+         * @return the games.
+         */
+        public long games() {
+            return this.games;
+        }
+
+        /**
+         * Returns the number of games won.
+         *
+         * @return the wins.
+         */
+        public long wins() {
+            return this.wins;
+        }
+
+        /**
+         * Returns the number of games won with a given number of guesses.
+         *
+         * @param tries the number of guesses.
+         * @return the wins with that many guesses.
+         */
+        public long winsWithTries(int tries) {
+            return this.winsByTries[tries];
+        }
+
+        /**
+         * Returns the number of games where the secret word was filtered out
+         * of the candidates, which means the scoring is wrong.
+         *
+         * @return the inconsistent games; 0 when everything works.
+         */
+        public long inconsistent() {
+            return this.inconsistent;
+        }
+
+        /**
+         * Returns the games played per second of wall time.
+         *
+         * @return the throughput of the run.
+         */
+        public double gamesPerSecond() {
+            return this.nanos == 0 ? 0 : this.games * 1e9 / this.nanos;
+        }
+
+        /**
+         * Prints the report.
+         *
+         * @param out where to print it.
+         */
+        public void print(PrintStream out) {
+            out.printf("Partidas: %d en %.2f s (%.0f partidas/s)\n", this.games, this.nanos / 1e9,
+                    gamesPerSecond());
+            out.printf("Ganadas: %d   Perdidas: %d   Porcentaje de victorias: %.2f%%\n", this.wins,
+                    this.games - this.wins, this.games == 0 ? 0 : this.wins * 100.0 / this.games);
+            out.printf("Intentos medios por partida: %.3f\n",
+                    this.games == 0 ? 0 : (double) this.guesses / this.games);
+
+            out.print("\nIntentos por partida ganada:\n");
+            for (int tries = 1; tries < this.winsByTries.length; tries++) {
+                out.printf("  %2d: %d\n", tries, this.winsByTries[tries]);
+            }
+            out.printf("\nPartidas incoherentes (puntuacion y filtro no coinciden): %d\n", this.inconsistent);
+        }
+    }
+
+    /**
+     * Plays a range of games, splitting it in halves while it is large.
+     */
+    private final class GamesTask extends RecursiveTask<Report> {
+
+        private final long from;
+        private final long to;
+        private final SplittableRandom random;
+
+        private GamesTask(long from, long to, SplittableRandom random) {
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected Report compute() {
+            if (this.to - this.from > GAMES_PER_TASK) {
+                long middle = (this.from + this.to) >>> 1;
+                GamesTask left = new GamesTask(this.from, middle, this.random.split());
+                left.fork();
+                Report report = new GamesTask(middle, this.to, this.random).compute();
+                report.merge(left.join());
+                return report;
+            }
+            Report report = new Report(Simulator.this.maxTries);
+            Strategy strategy = Simulator.this.strategies.get();
+            for (long game = this.from; game < this.to; game++) {
+                play(strategy, this.random, report);
+            }
+            return report;
+        }
+    }
+
+    /**
+     * Dictionary of secret words and guesses.
+     */
+    private final CandidateIndex index;
+
+    /**
+     * Validates the guesses, as in a real game.
+     */
+    private final GuessValidator validator;
+
+    /**
+     * Maximum number of attempts of every game.
+     */
+    private final int maxTries;
+
+    /**
+     * Creates a strategy for every task.
+     */
+    private final Supplier<Strategy> strategies;
+
+    /**
+     * Creates a simulator.
+     *
+     * @param index the index of the dictionary.
+     * @param validator the validator for the guesses.
+     * @param maxTries the maximum number of attempts of every game.
+     * @param strategies creates the strategy of every task.
+     */
+    public Simulator(CandidateIndex index, GuessValidator validator, int maxTries, Supplier<Strategy> strategies) {
+        this.index = index;
+        this.validator = validator;
+        this.maxTries = maxTries;
+        this.strategies = strategies;
+    }
+
+    /**
+     * Plays games on the common fork-join pool.
+     *
+     * @param games the number of games.
+     * @param seed the seed of the random generators; the same seed plays the
+     * same games.
+     * @return the merged results.
+     */
+    public Report run(long games, long seed) {
+        long start = System.nanoTime();
+        Report report = ForkJoinPool.commonPool().invoke(new GamesTask(0, games, new SplittableRandom(seed)));
+        report.nanos = System.nanoTime() - start;
+        return report;
+    }
+
+    /**
+     * Plays one game and adds it to the report.
+     */
+    private void play(Strategy strategy, SplittableRandom random, Report report) {
+        int secret = random.nextInt(this.index.words().size());
+        // Simulated games are not recorded in the metrics of the played ones.
+        GameSession session = new GameSession(this.index.words().wordAt(secret), this.maxTries, this.validator,
+                null);
+        long[] candidates = this.index.all();
+
+        while (session.status() == GameSession.Status.PLAYING) {
+            String guess = strategy.guess(candidates, session.tries(), random);
+            if (session.submit(guess) != GuessValidator.Verdict.VALID) {
+                throw new IllegalStateException("The strategy guessed an invalid word: " + guess);
+            }
+            this.index.filter(candidates, guess, session.lastFeedback());
+            if ((candidates[secret >>> 6] & (1L << (secret & 63))) == 0) {
+                report.inconsistent++;
+                break;
+            }
+        }
+
+        report.games++;
+        report.guesses += session.tries();
+        if (session.status() == GameSession.Status.WON) {
+            report.wins++;
+            report.winsByTries[session.tries()]++;
+        }
+    }
+
+    /**
+     * Strategy that guesses any word still possible, at random.
+     *
+     * @param index the index of the dictionary.
+     * @return a factory of the strategy.
+     */
+    public static Supplier<Strategy> random(CandidateIndex index) {
+        return () -> (candidates, attempt, random) -> randomCandidate(index, candidates, random);
+    }
+
+    /**
+     * Strategy that always opens with the same word and then guesses any
+     * word still possible, at random.
+     *
+     * @param index the index of the dictionary.
+     * @param opener the first guess.
+     * @return a factory of the strategy.
+     */
+    public static Supplier<Strategy> opener(CandidateIndex index, String opener) {
+        String first = opener.toUpperCase();
+        return () -> (candidates, attempt, random) -> attempt == 0 ? first
+                : randomCandidate(index, candidates, random);
+    }
+
+    /**
+     * Strategy that plays the {@link Solver} suggestion. The first guess is
+     * computed once here; every strategy instance then remembers the
+     * suggestion for each candidate set it meets, as the solver always
+     * suggests the same word for the same candidates.
+     *
+     * @param index the index of the dictionary.
+     * @param solver the solver of the same dictionary.
+     * @return a factory of the strategy.
+     */
+    public static Supplier<Strategy> solver(CandidateIndex index, Solver solver) {
+        String first = solver.suggest(index.all(), Long.MAX_VALUE).word();
+        return () -> {
+            Map<LongBuffer, String> known = new HashMap<>();
+            return (candidates, attempt, random) -> {
+                if (attempt == 0) {
+                    return first;
+                }
+                // A LongBuffer compares the contents of the array it wraps.
+                return known.computeIfAbsent(LongBuffer.wrap(candidates.clone()),
+                        key -> solver.suggest(candidates, Long.MAX_VALUE).word());
+            };
+        };
+    }
+
+    /**
+     * Returns a random word of a candidate set.
+     */
+    private static String randomCandidate(CandidateIndex index, long[] candidates, SplittableRandom random) {
+        int skip = random.nextInt(CandidateIndex.count(candidates));
+        for (int i = 0; i < candidates.length; i++) {
+            int bits = Long.bitCount(candidates[i]);
+            if (skip >= bits) {
+                skip -= bits;
+                continue;
+            }
+            long block = candidates[i];
+            for (; skip > 0; skip--) {
+                block &= block - 1;
+            }
+            return index.words().wordAt((i << 6) + Long.numberOfTrailingZeros(block));
+        }
+        throw new IllegalArgumentException("No word is consistent with the feedback");
+    }
+}
@@ -0,0 +1,411 @@
+package wordlegame;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Solver - Suggests the guess that gives the most information about the
+ * secret word.
+ *
+ * For every dictionary word the solver scores it against every word still
+ * possible (with the same rules as the game, see {@link Feedback}) and
+ * computes the entropy of the feedback it would get: the higher the entropy,
+ * the fewer words are expected to remain after the guess. This costs
+ * (dictionary size x candidates) scorings, so the guesses are split among the
+ * fork-join pool and every search has a time budget. When the budget runs
+ * out, or the search is cancelled, the best guess found so far is used. Each
+ * guess is scored against all the candidates at once by a {@link BatchScorer}
+ * (SIMD when available); with a {@link FeedbackMatrix} of the dictionary every
+ * scoring becomes a lookup instead.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class Solver {
+
+    /**
+     * Guesses evaluated by a single fork-join task before it stops splitting.
+     */
+    private static final int GUESSES_PER_TASK = 64;
+
+    /**
+     * Result of a search.
+     */
+    public static final class Suggestion {
+
+        private final String word;
+        private final double entropy;
+        private final int evaluated;
+        private final boolean complete;
+
+        private Suggestion(String word, double entropy, int evaluated, boolean complete) {
+            this.word = word;
+            this.entropy = entropy;
+            this.evaluated = evaluated;
+            this.complete = complete;
+        }
+
+        /**
+         * Returns the suggested guess.
+         *
+         * @return the word in uppercase.
+         */
+        public String word() {
+            return this.word;
+        }
+
+        /**
+         * Returns the expected information of the guess.
+         *
+         * @return the entropy of its feedback, in bits.
+         */
+        public double entropy() {
+            return this.entropy;
+        }
+
+        /**
+         * Returns how many guesses were evaluated.
+         *
+         * @return the number of guesses evaluated before the search ended.
+         */
+        public int evaluated() {
+            return this.evaluated;
+        }
+
+        /**
+         * Tells whether every guess was evaluated.
+         *
+         * @return false if the time budget ran out or the search was
+         * cancelled first.
+         */
+        public boolean complete() {
+            return this.complete;
+        }
+    }
+
+    /**
+     * A running search, which can be cancelled.
+     */
+    public final class Search {
+
+        private final long[] candidateBits;
+        private final long[] candidates;
+        private final int[] candidateIndices;
+        private final BatchScorer scorer;
+        private final double[] entropies;
+        private final long deadline;
+        private final ForkJoinTask<Void> task;
+        private volatile boolean cancelled;
+
+        private Search(long[] candidateBits, int[] candidates, long deadline) {
+            this.candidateBits = candidateBits.clone();
+            this.candidates = new long[candidates.length];
+            this.candidateIndices = candidates;
+            for (int i = 0; i < candidates.length; i++) {
+                this.candidates[i] = Solver.this.words[candidates[i]];
+            }
+            this.scorer = Solver.this.matrix == null ? BatchScorer.of(new PackedWordList(this.candidates)) : null;
+            this.entropies = new double[Solver.this.words.length];
+            Arrays.fill(this.entropies, Double.NaN);
+            this.deadline = deadline;
+            this.task = Solver.this.pool.submit(new EntropyTask(this, 0, Solver.this.words.length));
+        }
+
+        /**
+         * Stops the search; {@link #result()} then returns the best guess
+         * found so far.
+         */
+        public void cancel() {
+            this.cancelled = true;
+        }
+
+        /**
+         * Waits for the search to end and returns the best guess.
+         *
+         * @return the suggestion.
+         */
+        public Suggestion result() {
+            this.task.join();
+            int best = -1;
+            int evaluated = 0;
+            for (int i = 0; i < this.entropies.length; i++) {
+                if (Double.isNaN(this.entropies[i])) {
+                    continue;
+                }
+                evaluated++;
+                if (best < 0 || this.entropies[i] > this.entropies[best]
+                        || (this.entropies[i] == this.entropies[best] && isCandidate(i) && !isCandidate(best))) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                // Nothing evaluated in time: any possible word is a valid guess.
+                return new Suggestion(PackedWord.unpack(this.candidates[0]), 0, 0, false);
+            }
+            return new Suggestion(PackedWord.unpack(Solver.this.words[best]), this.entropies[best], evaluated,
+                    evaluated == this.entropies.length);
+        }
+
+        /**
+         * Returns the entropy computed for every dictionary word, NaN for the
+         * words not evaluated.
+         *
+         * @return the entropies, by dictionary index.
+         */
+        double[] entropies() {
+            this.task.join();
+            return this.entropies;
+        }
+
+        private boolean stopped() {
+            return this.cancelled || System.nanoTime() - this.deadline > 0;
+        }
+
+        private boolean isCandidate(int word) {
+            return (this.candidateBits[word >>> 6] & (1L << (word & 63))) != 0;
+        }
+    }
+
+    /**
+     * Computes the entropy of a range of guesses, splitting it in halves
+     * while it is large.
+     */
+    private final class EntropyTask extends RecursiveAction {
+
+        private final Search search;
+        private final int from;
+        private final int to;
+
+        private EntropyTask(Search search, int from, int to) {
+            this.search = search;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > GUESSES_PER_TASK) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new EntropyTask(this.search, this.from, middle),
+                        new EntropyTask(this.search, middle, this.to));
+                return;
+            }
+            int[] histogram = new int[Feedback.patterns(Solver.this.wordLength)];
+            BatchScorer scorer = this.search.scorer;
+            int[] feedbacks = scorer != null ? new int[scorer.size()] : null;
+            for (int g = this.from; g < this.to && !this.search.stopped(); g++) {
+                this.search.entropies[g] = scorer != null
+                        ? entropy(scorer, Solver.this.words[g], feedbacks, histogram)
+                        : entropy(Solver.this.matrix, g, this.search.candidateIndices, histogram);
+            }
+        }
+    }
+
+    /**
+     * Dictionary words, packed, by index.
+     */
+    private final long[] words;
+
+    /**
+     * Number of letters of every word.
+     */
+    private final int wordLength;
+
+    /**
+     * Pool that runs the searches.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Precomputed first guess, or null to compute it.
+     */
+    private String opening;
+
+    /**
+     * Entropy of the precomputed first guess.
+     */
+    private double openingEntropy;
+
+    /**
+     * Precomputed feedbacks of the dictionary, or null to score the words.
+     */
+    private volatile FeedbackMatrix matrix;
+
+    /**
+     * Creates a solver that runs on the common fork-join pool.
+     *
+     * @param dictionary the words that can be guessed (and be the secret).
+     * @param wordLength the number of letters of every word.
+     */
+    public Solver(WordList dictionary, int wordLength) {
+        this(dictionary, wordLength, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a solver.
+     *
+     * @param dictionary the words that can be guessed (and be the secret).
+     * @param wordLength the number of letters of every word.
+     * @param pool the pool that runs the searches.
+     */
+    public Solver(WordList dictionary, int wordLength, ForkJoinPool pool) {
+        this.words = new long[dictionary.size()];
+        for (int i = 0; i < this.words.length; i++) {
+            this.words[i] = dictionary.packedAt(i);
+        }
+        this.wordLength = wordLength;
+        this.pool = pool;
+    }
+
+    /**
+     * Suggests the best guess for a set of possible secret words, waiting at
+     * most the time budget.
+     *
+     * @param candidates the possible secret words, as a bitset over the
+     * dictionary (see {@link CandidateIndex}).
+     * @param budgetMillis the time budget in milliseconds.
+     * @return the suggestion.
+     * @throws IllegalArgumentException if there are no candidates.
+     */
+    public Suggestion suggest(long[] candidates, long budgetMillis) {
+        int count = CandidateIndex.count(candidates);
+        if (count == this.words.length && this.opening != null) {
+            // Nothing guessed yet: use the precomputed opening guess.
+            return new Suggestion(this.opening, this.openingEntropy, 0, true);
+        }
+        if (count == 1) {
+            for (int i = 0; i < candidates.length; i++) {
+                if (candidates[i] != 0) {
+                    int word = (i << 6) + Long.numberOfTrailingZeros(candidates[i]);
+                    return new Suggestion(PackedWord.unpack(this.words[word]), 0, 0, true);
+                }
+            }
+        }
+        return search(candidates, budgetMillis).result();
+    }
+
+    /**
+     * Sets the guess suggested before any feedback is known, usually taken
+     * from the {@link OpeningBook}, so the first suggestion is instant.
+     *
+     * @param word the opening guess.
+     * @param entropy its entropy against the whole dictionary, in bits.
+     */
+    public void useOpening(String word, double entropy) {
+        this.opening = word.toUpperCase();
+        this.openingEntropy = entropy;
+    }
+
+    /**
+     * Makes the searches read the feedbacks from a precomputed matrix instead
+     * of scoring the words.
+     *
+     * @param matrix the matrix of this solver's dictionary.
+     * @throws IllegalArgumentException if the matrix has another size.
+     */
+    public void useMatrix(FeedbackMatrix matrix) {
+        if (matrix.size() != this.words.length) {
+            throw new IllegalArgumentException("The matrix was built from another dictionary");
+        }
+        this.matrix = matrix;
+    }
+
+    /**
+     * Returns a candidate bitset with every dictionary word.
+     *
+     * @return the bitset.
+     */
+    long[] allWords() {
+        long[] all = new long[(this.words.length + 63) >>> 6];
+        for (int i = 0; i < this.words.length; i++) {
+            all[i >>> 6] |= 1L << (i & 63);
+        }
+        return all;
+    }
+
+    /**
+     * Returns a dictionary word.
+     *
+     * @param index the position of the word.
+     * @return the word in uppercase.
+     */
+    String wordAt(int index) {
+        return PackedWord.unpack(this.words[index]);
+    }
+
+    /**
+     * Starts a search in the background.
+     *
+     * @param candidates the possible secret words, as a bitset over the
+     * dictionary (see {@link CandidateIndex}).
+     * @param budgetMillis the time budget in milliseconds.
+     * @return the running search.
+     * @throws IllegalArgumentException if there are no candidates.
+     */
+    public Search search(long[] candidates, long budgetMillis) {
+        int[] indices = new int[CandidateIndex.count(candidates)];
+        if (indices.length == 0) {
+            throw new IllegalArgumentException("No word is consistent with the feedback");
+        }
+        int found = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            long block = candidates[i];
+            while (block != 0) {
+                indices[found++] = (i << 6) + Long.numberOfTrailingZeros(block);
+                block &= block - 1;
+            }
+        }
+        long budgetNanos = Math.min(budgetMillis, Long.MAX_VALUE / 2_000_000L) * 1_000_000L;
+        return new Search(candidates, indices, System.nanoTime() + budgetNanos);
+    }
+
+    /**
+     * Computes the entropy of the feedback a guess gets against a set of
+     * equally likely secret words.
+     *
+     * @param scorer the possible secret words.
+     * @param guess the packed guess.
+     * @param feedbacks work array with one slot per possible secret word.
+     * @param histogram work array with one slot per feedback; cleared here.
+     * @return the entropy in bits.
+     */
+    static double entropy(BatchScorer scorer, long guess, int[] feedbacks, int[] histogram) {
+        Arrays.fill(histogram, 0);
+        scorer.score(guess, feedbacks);
+        for (int i = 0; i < scorer.size(); i++) {
+            histogram[feedbacks[i]]++;
+        }
+        return entropy(histogram, scorer.size());
+    }
+
+    /**
+     * Computes the entropy of a guess like
+     * {@link #entropy(BatchScorer, long, int[], int[])}
+     * but reading the feedbacks from a matrix.
+     *
+     * @param matrix the feedback matrix of the dictionary.
+     * @param guess the dictionary index of the guess.
+     * @param candidates the dictionary indices of the possible secret words.
+     * @param histogram work array with one slot per feedback; cleared here.
+     * @return the entropy in bits.
+     */
+    static double entropy(FeedbackMatrix matrix, int guess, int[] candidates, int[] histogram) {
+        Arrays.fill(histogram, 0);
+        for (int candidate : candidates) {
+            histogram[matrix.feedback(guess, candidate)]++;
+        }
+        return entropy(histogram, candidates.length);
+    }
+
+    private static double entropy(int[] histogram, int candidates) {
+        double n = candidates;
+        double sum = 0;
+        for (int count : histogram) {
+            if (count > 0) {
+                sum += count * Math.log(count);
+            }
+        }
+        return (Math.log(n) - sum / n) / Math.log(2);
+    }
+}
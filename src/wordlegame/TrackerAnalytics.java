@@ -0,0 +1,236 @@
+package wordlegame;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * TrackerAnalytics - Statistics of every game saved in the trackers
+ * directory: win rate, attempts per won game, hardest secret words and how
+ * often each letter misses.
+ *
+ * The history files are read in parallel on a fork-join pool, memory-mapped
+ * (see {@link HistoryFiles}). The stats of every file are kept in an index
+ * file ({@value #INDEX_FILE}) next to them, with the file size and
+ * modification time, so later runs only read the files that are new or have
+ * changed (for example the journal segment being written).
+ *
+ * Usage: {@code java wordlegame.TrackerAnalytics [directory]}
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class TrackerAnalytics {
+
+    /**
+     * Name of the index file inside the analysed directory.
+     */
+    static final String INDEX_FILE = ".analytics-index";
+
+    /**
+     * Files read by a single fork-join task before it stops splitting.
+     */
+    private static final int FILES_PER_TASK = 8;
+
+    /**
+     * Stats of one history file, as kept in the index.
+     */
+    private static final class FileStats {
+
+        private final String name;
+        private final long size;
+        private final long modified;
+        private final HistoryStats stats;
+
+        private FileStats(String name, long size, long modified, HistoryStats stats) {
+            this.name = name;
+            this.size = size;
+            this.modified = modified;
+            this.stats = stats;
+        }
+    }
+
+    /**
+     * Reads a range of files, splitting it in halves while it is large.
+     */
+    private static final class ScanTask extends RecursiveTask<List<FileStats>> {
+
+        private final List<Path> files;
+        private final int from;
+        private final int to;
+
+        private ScanTask(List<Path> files, int from, int to) {
+            this.files = files;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<FileStats> compute() {
+            if (this.to - this.from > FILES_PER_TASK) {
+                int middle = (this.from + this.to) >>> 1;
+                ScanTask left = new ScanTask(this.files, this.from, middle);
+                left.fork();
+                List<FileStats> result = new ScanTask(this.files, middle, this.to).compute();
+                result.addAll(left.join());
+                return result;
+            }
+            List<FileStats> result = new ArrayList<>();
+            for (int i = this.from; i < this.to; i++) {
+                try {
+                    result.add(scan(this.files.get(i)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return result;
+        }
+    }
+
+    private TrackerAnalytics() {
+    }
+
+    /**
+     * Command line entry point.
+     *
+     * @param args the directory to analyse ({@code trackers} by default).
+     * @throws IOException if the directory or the index cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(args.length > 0 ? args[0] : GameJournal.DEFAULT_DIRECTORY);
+        analyse(directory, System.out).print(System.out);
+    }
+
+    /**
+     * Computes the stats of every history file of a directory, reading only
+     * the files that changed since the last run, and updates the index.
+     *
+     * @param directory the directory with the history files.
+     * @return the stats of all the games.
+     * @throws IOException if the directory cannot be read.
+     */
+    public static HistoryStats analyse(Path directory) throws IOException {
+        return analyse(directory, null);
+    }
+
+    /**
+     * Computes the stats of every history file of a directory like
+     * {@link #analyse(Path)}, telling how many files were read.
+     *
+     * @param directory the directory with the history files.
+     * @param out where the number of files analysed and read is printed, or
+     * null to print nothing.
+     * @return the stats of all the games.
+     * @throws IOException if the directory cannot be read.
+     */
+    public static HistoryStats analyse(Path directory, PrintStream out) throws IOException {
+        Map<String, FileStats> index = readIndex(directory.resolve(INDEX_FILE));
+        Map<String, FileStats> current = new HashMap<>();
+        List<Path> changed = new ArrayList<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, HistoryFiles::isHistoryFile)) {
+            for (Path file : files) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                String name = file.getFileName().toString();
+                FileStats known = index.get(name);
+                if (known != null && known.size == attributes.size()
+                        && known.modified == attributes.lastModifiedTime().toMillis()) {
+                    current.put(name, known);
+                } else {
+                    changed.add(file);
+                }
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            try {
+                for (FileStats stats : ForkJoinPool.commonPool().invoke(new ScanTask(changed, 0, changed.size()))) {
+                    current.put(stats.name, stats);
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        if (out != null) {
+            out.printf("Ficheros analizados: %d (%d nuevos o modificados)\n\n", current.size(), changed.size());
+        }
+
+        HistoryStats total = new HistoryStats();
+        for (FileStats stats : current.values()) {
+            total.merge(stats.stats);
+        }
+        try {
+            writeIndex(directory.resolve(INDEX_FILE), current);
+        } catch (IOException ex) {
+            // The stats are still right; the next run will just read more files.
+            Logger.getLogger(TrackerAnalytics.class.getName()).log(Level.WARNING, "Could not save the index", ex);
+        }
+        return total;
+    }
+
+    /**
+     * Reads the games of one file.
+     */
+    private static FileStats scan(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        HistoryStats stats = new HistoryStats();
+        for (GameRecord game : HistoryFiles.read(file)) {
+            stats.add(game);
+        }
+        return new FileStats(file.getFileName().toString(), attributes.size(),
+                attributes.lastModifiedTime().toMillis(), stats);
+    }
+
+    /**
+     * Loads the index; a missing or damaged index is treated as empty.
+     */
+    private static Map<String, FileStats> readIndex(Path indexFile) {
+        Map<String, FileStats> index = new HashMap<>();
+        if (!Files.exists(indexFile)) {
+            return index;
+        }
+        try (BufferedReader br = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] fields = line.split("\t");
+                if (fields.length == 4) {
+                    index.put(fields[0], new FileStats(fields[0], Long.parseLong(fields[1]),
+                            Long.parseLong(fields[2]), HistoryStats.decode(fields[3])));
+                }
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            Logger.getLogger(TrackerAnalytics.class.getName()).log(Level.WARNING, "Ignoring damaged index", ex);
+            index.clear();
+        }
+        return index;
+    }
+
+    /**
+     * Saves the index, replacing the previous one in a single move.
+     */
+    private static void writeIndex(Path indexFile, Map<String, FileStats> index) throws IOException {
+        Path temp = indexFile.resolveSibling(INDEX_FILE + ".tmp");
+        try (BufferedWriter bw = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (FileStats stats : index.values()) {
+                bw.write(stats.name + "\t" + stats.size + "\t" + stats.modified + "\t" + stats.stats.encode());
+                bw.newLine();
+            }
+        }
+        Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,106 @@
+package wordlegame;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * VectorBatchScorer - {@link BatchScorer} that scores a guess against one
+ * SIMD vector of secret words per step with the Vector API.
+ *
+ * Each lane holds one secret word. For every position the greens are a lane
+ * compare of the secret letters with the guess letter; a non-green guess
+ * letter is yellow when the secret has more unmatched copies of it than the
+ * non-green copies earlier in the guess, exactly like the left-to-right rule
+ * of {@link Feedback}. The feedback of words of up to 5 letters fits in a
+ * byte lane; longer words, and the last words that do not fill a vector, are
+ * scored one at a time.
+ *
+ * Only loaded by {@link BatchScorer#of(WordList)} when the
+ * {@code jdk.incubator.vector} module is present.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+final class VectorBatchScorer extends BatchScorer {
+
+    /**
+     * Longest word whose feedback fits in a byte lane.
+     */
+    private static final int MAX_VECTOR_LENGTH = 5;
+
+    /**
+     * One lane per secret word.
+     */
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+
+    /**
+     * Feedbacks widened to ints to be stored.
+     */
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+    /**
+     * Creates a vectorized scorer. Every word must have the same length.
+     *
+     * @param words the secret words.
+     * @throws IllegalArgumentException if the words have different lengths.
+     */
+    VectorBatchScorer(WordList words) {
+        super(words);
+    }
+
+    @Override
+    public void score(long guess, int[] feedbacks) {
+        if (this.wordLength > MAX_VECTOR_LENGTH) {
+            super.score(guess, feedbacks);
+            return;
+        }
+        int length = this.wordLength;
+        int bound = BYTES.loopBound(this.size);
+        int parts = BYTES.length() / INTS.length();
+        ByteVector zero = ByteVector.zero(BYTES);
+
+        for (int w = 0; w < bound; w += BYTES.length()) {
+            ByteVector feedback = zero;
+            int weight = 1;
+            for (int p = 0; p < length; p++, weight *= 3) {
+                byte code = (byte) PackedWord.codeAt(guess, p);
+                VectorMask<Byte> green = ByteVector.fromArray(BYTES, this.letters[p], w).eq(code);
+                feedback = feedback.lanewise(VectorOperators.ADD, (byte) (Feedback.GREEN * weight), green);
+
+                // Copies of the letter in the secret that are not green (positions
+                // where the guess has the same letter are green or not a copy).
+                ByteVector available = zero;
+                // Non-green copies of the letter earlier in the guess, which take
+                // the available copies first.
+                ByteVector used = zero;
+                for (int q = 0; q < length; q++) {
+                    int other = PackedWord.codeAt(guess, q);
+                    if (other != code) {
+                        VectorMask<Byte> copy = ByteVector.fromArray(BYTES, this.letters[q], w).eq(code);
+                        available = available.lanewise(VectorOperators.ADD, (byte) 1, copy);
+                    } else if (q < p) {
+                        VectorMask<Byte> wasGreen = ByteVector.fromArray(BYTES, this.letters[q], w).eq(code);
+                        used = used.lanewise(VectorOperators.ADD, (byte) 1, wasGreen.not());
+                    }
+                }
+                VectorMask<Byte> yellow = available.compare(VectorOperators.GT, used).andNot(green);
+                feedback = feedback.lanewise(VectorOperators.ADD, (byte) (Feedback.YELLOW * weight), yellow);
+            }
+            for (int part = 0; part < parts; part++) {
+                // Feedbacks go up to 242: widen the lanes as unsigned bytes.
+                ((IntVector) feedback.castShape(INTS, part)).and(0xFF)
+                        .intoArray(feedbacks, w + part * INTS.length());
+            }
+        }
+        for (int w = bound; w < this.size; w++) {
+            feedbacks[w] = scoreOne(guess, w);
+        }
+    }
+
+    @Override
+    public boolean vectorized() {
+        return true;
+    }
+}
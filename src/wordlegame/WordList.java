@@ -0,0 +1,37 @@
+package wordlegame;
+
+/**
+ * WordList - Read-only, indexed list of dictionary words.
+ *
+ * Words are exposed in their packed form (see {@link PackedWord}) so that
+ * callers working on large dictionaries do not need to create Strings.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public interface WordList {
+
+    /**
+     * Returns the number of words in the list.
+     *
+     * @return the number of words.
+     */
+    int size();
+
+    /**
+     * Returns a word in its packed form.
+     *
+     * @param index the position of the word, between 0 and size() - 1.
+     * @return the packed word.
+     */
+    long packedAt(int index);
+
+    /**
+     * Returns a word as uppercase text.
+     *
+     * @param index the position of the word, between 0 and size() - 1.
+     * @return the word in uppercase.
+     */
+    default String wordAt(int index) {
+        return PackedWord.unpack(packedAt(index));
+    }
+}
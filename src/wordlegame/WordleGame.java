@@ -1,16 +1,10 @@
 package wordlegame;
 import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Random;
-import java.util.Scanner;
+import java.util.function.BiConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -22,49 +16,186 @@ import java.util.logging.Logger;
  */
 public class WordleGame {
 
+    /**
+     * Number of attempts of a game when none is given.
+     */
+    public static final int DEFAULT_MAX_TRIES = 6;
+
     /**
      * Maximum number of attempts allowed for the player.
      */
-    final private int MAX_TRIES = 6;
+    final private int MAX_TRIES;
+
+    /**
+     * Word length of the game, the one of its validator.
+     */
+    final private int WORD_LENGHT;
+
+    /**
+     * Number of possible words shown with each hint.
+     */
+    private static final int HINT_EXAMPLES = 5;
+
+    /**
+     * Time the solver may spend on each suggestion.
+     */
+    private static final long SOLVER_BUDGET_MILLIS = 500;
+
+    /**
+     * Words loaded from an external source.
+     */
+    private final WordList FILEWORDS;
+
+    /**
+     * State of the current game: secret word, attempts and their feedback.
+     */
+    private final GameSession session;
+
+    /**
+     * Draws the board of attempts and the messages of the game.
+     */
+    private final BoardRenderer screen;
+
+    /**
+     * Journal where the finished game is saved.
+     */
+    private final GameJournal journal;
+
+    /**
+     * Index used to show how many words are still possible, or null to play
+     * without hints.
+     */
+    private final CandidateIndex hints;
+
+    /**
+     * Words still consistent with every feedback so far (only with hints).
+     */
+    private final long[] candidates;
+
+    /**
+     * Solver that suggests the next guess (only with hints), or null.
+     */
+    private final Solver solver;
+
+    /**
+     * Source of the words typed by the player (or read from a script).
+     */
+    private final LineInput keyBoard;
+
+    /**
+     * Receives the guesses rejected in a scripted game, or null when the game
+     * is not read from a script.
+     */
+    private BiConsumer<String, GuessValidator.Verdict> rejected;
 
     /**
-     * Fixed word length for the game.
+     * SI/NO answer read from the script while the game was being played, or
+     * null.
      */
-    final private int WORD_LENGHT = 5;
+    private String answer;
 
     /**
-     * Array to store words loaded from an external source.
+     * Constructor to initialize the game with a dictionary and the player's
+     * secret words. Only words of the dictionary are accepted as guesses.
+     *
+     * @param fileWords Dictionary of the game.
+     * @param secrets Shuffle-bag of the player's secret words, owned by the
+     * caller; the secret word of this game is drawn from it.
+     * @throws IOException if the default game journal cannot be opened.
      */
-    private final String[] FILEWORDS;
+    public WordleGame(WordList fileWords, SecretScheduler.Bag secrets) throws IOException {
+        this(fileWords, new GuessValidator(fileWords.size() > 0 ? PackedWord.length(fileWords.packedAt(0)) : 5,
+                PackedWordSet.of(fileWords)), GameJournal.defaultJournal(), null, null, secrets.next());
+    }
 
     /**
-     * Secret word chosen for the current game session.
+     * Constructor to initialize the game with a secret word chosen by the
+     * caller, usually drawn from the player's {@link SecretScheduler.Bag} or
+     * the word of the day.
+     *
+     * @param fileWords Dictionary of the game.
+     * @param validator Validator for the words typed by the player.
+     * @param journal Journal where the finished game is saved.
+     * @param hints Index of the dictionary used for the hints, or null.
+     * @param solver Solver over the same dictionary as the hints, or null.
+     * @param secretWord The word to guess.
      */
-    private final String SECRETWORD;
+    public WordleGame(WordList fileWords, GuessValidator validator, GameJournal journal, CandidateIndex hints,
+            Solver solver, String secretWord) {
+        this(fileWords, validator, journal, hints, solver, secretWord, DEFAULT_MAX_TRIES);
+    }
 
     /**
-     * Remaining attempts for the player.
+     * Constructor to initialize the game with a secret word and a number of
+     * attempts chosen by the caller. The word length is the one of the
+     * validator.
+     *
+     * @param fileWords Dictionary of the game, with words of the validator's
+     * length.
+     * @param validator Validator for the words typed by the player.
+     * @param journal Journal where the finished game is saved.
+     * @param hints Index of the dictionary used for the hints, or null.
+     * @param solver Solver over the same dictionary as the hints, or null.
+     * @param secretWord The word to guess.
+     * @param maxTries Maximum number of attempts.
      */
-    private int remainingAttempts;
+    public WordleGame(WordList fileWords, GuessValidator validator, GameJournal journal, CandidateIndex hints,
+            Solver solver, String secretWord, int maxTries) {
+        this(fileWords, validator, journal, hints, solver, secretWord, maxTries, LineInput.stdin(),
+                BoardRenderer.console(validator.wordLength(), maxTries));
+    }
 
     /**
-     * Tracks the history of attempts made by the player.
+     * Constructor to initialize the game with its own input and output, for
+     * example to replay a script of guesses without showing the board.
+     *
+     * @param fileWords Dictionary of the game.
+     * @param validator Validator for the words typed by the player.
+     * @param journal Journal where the finished game is saved, or null to
+     * not save it.
+     * @param hints Index of the dictionary used for the hints, or null.
+     * @param solver Solver over the same dictionary as the hints, or null.
+     * @param secretWord The word to guess.
+     * @param input Source of the guesses.
+     * @param screen Where the board and the messages are drawn.
      */
-    private StringBuilder triesHistory;
-    private Scanner keyBoard = new Scanner(System.in);
+    public WordleGame(WordList fileWords, GuessValidator validator, GameJournal journal, CandidateIndex hints,
+            Solver solver, String secretWord, LineInput input, BoardRenderer screen) {
+        this(fileWords, validator, journal, hints, solver, secretWord, DEFAULT_MAX_TRIES, input, screen);
+    }
 
     /**
-     * Constructor to initialize the game with a list of words.
+     * Constructor to initialize the game with its own number of attempts,
+     * input and output.
      *
-     * @param fileWords Array of words used for selecting the secret word.
+     * @param fileWords Dictionary of the game, with words of the validator's
+     * length.
+     * @param validator Validator for the words typed by the player.
+     * @param journal Journal where the finished game is saved, or null to
+     * not save it.
+     * @param hints Index of the dictionary used for the hints, or null.
+     * @param solver Solver over the same dictionary as the hints, or null.
+     * @param secretWord The word to guess.
+     * @param maxTries Maximum number of attempts.
+     * @param input Source of the guesses.
+     * @param screen Where the board and the messages are drawn, sized for
+     * the word length and the attempts.
      */
-    public WordleGame(String[] fileWords) {
+    public WordleGame(WordList fileWords, GuessValidator validator, GameJournal journal, CandidateIndex hints,
+            Solver solver, String secretWord, int maxTries, LineInput input, BoardRenderer screen) {
+        if (maxTries < 1) {
+            throw new IllegalArgumentException("A game needs at least one attempt");
+        }
+        this.MAX_TRIES = maxTries;
+        this.WORD_LENGHT = validator.wordLength();
         this.FILEWORDS = fileWords;
-        // this.SECRETWORD = this.selectRandomWord(); // Selects a random word as the
-        // secret word.
-        this.SECRETWORD = this.selectRandomWord();
-        this.remainingAttempts = 0; // Initializes remaining attempts.
-        this.triesHistory = new StringBuilder(); // Initializes the history tracker.
+        this.journal = journal;
+        this.hints = hints;
+        this.solver = hints == null ? null : solver;
+        this.candidates = hints == null ? null : hints.all();
+        this.session = new GameSession(secretWord, this.MAX_TRIES, validator);
+        this.keyBoard = input;
+        this.screen = screen;
 
     }
 
@@ -87,12 +218,9 @@ public class WordleGame {
         // List to store the words
         ArrayList<String> words = new ArrayList<>();
 
-        try {
-            // Create a FileReader to read the file from the specified path
-            FileReader fr = new FileReader(filePath);
-            // Wrap the FileReader in a BufferedReader for efficient reading
-            BufferedReader br = new BufferedReader(fr);
-
+        // Create a FileReader to read the file from the specified path, wrapped
+        // in a BufferedReader for efficient reading
+        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
             String line;
             // Read each line of the file
             while ((line = br.readLine()) != null) {
@@ -101,10 +229,6 @@ public class WordleGame {
                 // Add all the words in the line to the list
                 words.addAll(Arrays.asList(lineWords));
             }
-            br.close();
-        } catch (IOException e) {
-            // Catch any exceptions that occur during file reading
-            // Note: This block is empty, meaning exceptions are ignored
         }
 
         // Check if any words were added to the list
@@ -118,254 +242,179 @@ public class WordleGame {
     }
 
     /**
-     * Selects a random word from the list of available words.
+     * Prompts the user to input a valid word of the game's length and submits
+     * it to the game session, which validates that the input has exactly that
+     * many letters, contains no numbers and is a dictionary word.
      *
-     * @return The randomly selected word.
-     */
-    private String selectRandomWord() {
-        String systemSecretWord;
-        int wordPostion;
-        Random random = new Random();
-
-        // Selects a random position from the array of words.
-        wordPostion = random.nextInt(0, this.FILEWORDS.length);
-        systemSecretWord = this.FILEWORDS[wordPostion];
-        return systemSecretWord.toUpperCase();
-    }
-
-    /**
-     * Prompts the user to input a valid word of 5 letters. Validates that the
-     * input is exactly 5 letters and contains no numbers.
-     *
-     * @return The user's input word in uppercase.
+     * @return The accepted word in uppercase, or null if the input ended (or
+     * a script answered the next question).
      */
     private String getUserInput() {
-        String word = "";
+        String word;
+        GuessValidator.Verdict verdict;
 
-        boolean lengthException;
-        boolean numericException;
-        boolean especialCharException;
-        boolean alphbeticException;
-        boolean exception;
         do {
-            System.out.print("\nIntroduzca Palabra de 5 letras: ");
-            word = keyBoard.nextLine();
-            lengthException = word.length() != this.WORD_LENGHT;//|| word.length() == 0;
-            numericException = word.matches("[0-9]+");
-            alphbeticException = word.matches("[a-zA-z]");
-            especialCharException = word.matches(".*[^a-zA-Z0-9ñÑ].*");
-            if (word.isEmpty()) {
-                System.err.println("Error: La palabra no puede estar vacia");
-            } else if (lengthException || !word.matches("[a-zA-ZñÑ]{5}")) {
-                if (lengthException && !numericException && !especialCharException) {
-                    System.err.println("Error: La palabra ingresada debe tener una longitud exacta de 5 letras");
-                } else if (numericException && !especialCharException) {
-                    System.err.println("Error: No se aceptan valores númericos");
-                } else if (especialCharException && !numericException) {
-                    System.err.println("Error: Los caracteres especiales no estan admitidos por el sistema");
-                } else {
-                    System.err.println("Error: Solo se admiten letras");
+            this.screen.text("\nIntroduzca Palabra de " + this.WORD_LENGHT + " letras: ");
+            this.screen.flush(); // the whole turn goes out at once
+            long start = Metrics.start();
+            try {
+                word = this.keyBoard.readLine();
+            } catch (IOException ex) {
+                Logger.getLogger(WordleGame.class.getName()).log(Level.SEVERE, "Could not read the input", ex);
+                word = null;
+            }
+            Metrics.global().stop(Metrics.Phase.INPUT, start);
+            if (word == null) {
+                return null; // End of the input: the game is abandoned.
+            }
+            if (this.rejected != null && (word.equalsIgnoreCase("SI") || word.equalsIgnoreCase("NO"))) {
+                this.answer = word; // The script answers the next question: the game is abandoned.
+                return null;
+            }
+            verdict = this.session.submit(word);
+            if (verdict != GuessValidator.Verdict.VALID) {
+                this.screen.error(verdict.message(this.WORD_LENGHT));
+                if (this.rejected != null) {
+                    this.rejected.accept(word, verdict);
                 }
             }
 
-            // Validates word length and checks for alphabetic characters only.
-        } while ((lengthException || !word.matches("[a-zA-ZñÑ]{5}")));
+            // Validates word length, alphabetic characters only and dictionary words.
+        } while (verdict != GuessValidator.Verdict.VALID);
 
         return word.toUpperCase(); // Returns the word in uppercase for consistency.
     }
 
     /**
-     * This method writes the game history (attempts) to a text file. It removes
-     * ANSI escape codes (if present) and includes the current date and time.
-     *
-     * @param triesHistory A StringBuilder containing the user's attempt
-     * history.
-     * @return A PrintWriter object that was used to write the file.
+     * Saves the finished game to the game journal. The journal writes it in
+     * the background, so the player does not wait for the disk.
      */
-    private PrintWriter ShowTriesHistory(StringBuilder triesHistory) {
-        // Get the current system date and time
-        LocalDateTime systemDateAndTime = LocalDateTime.now();
-
-        // Define the format for date and time
-        DateTimeFormatter newFormat = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
-        // Format the current date and time as a string
-        String formattedDateTime = systemDateAndTime.format(newFormat);
-        String safeTimestamp = formattedDateTime.replace(":", "_").replace("/", "_").replace("T", "_").replace("Z", "");
-
-        PrintWriter pw = null;
-        try {
-            // Regular expression to remove ANSI escape codes (color codes, formatting,
-            // etc.)
-            String ansiRegex = "\u001B\\[[0-9;]*m";
-
-            // Convert StringBuilder to String and remove ANSI codes
-            String cleanedHistory = triesHistory.toString().replaceAll(ansiRegex, "");
-
-            String directoryPath = "trackers";
-
-            // Create the directory if it doesn't exist
-            File directory = new File(directoryPath);
-            if (!directory.exists()) {
-                directory.mkdir(); // Create the directory
-            }
-
-            // Build the full file path
-            String filename = directoryPath + File.separator + safeTimestamp + "gamesTriesHistory.txt";
-
-            pw = new PrintWriter(filename);
+    private void ShowTriesHistory() {
+        if (this.journal != null) {
+            this.journal.append(GameRecord.of(this.session));
+        }
+    }
 
-            // Write the formatted date and time at the beginning of the file
-            pw.println("GAMES DATE AND TIME:\n---------------------\n" + formattedDateTime);
+    /**
+     * Plays the game from a script. Each rejected guess is passed to the
+     * listener, and an SI/NO line read during the game is not taken as a
+     * guess: the script has moved on to the next question, so the game is
+     * abandoned and the line is kept as its answer (see {@link #answer()}).
+     *
+     * @param rejected receives each rejected line and the reason.
+     */
+    public void scripted(BiConsumer<String, GuessValidator.Verdict> rejected) {
+        this.rejected = rejected;
+    }
 
-            // Write the cleaned attempt history
-            pw.println("\nYOUR ATTEMPTS:\n-----------\n" + cleanedHistory);
+    /**
+     * Returns the SI/NO answer that ended a scripted game before it was over.
+     *
+     * @return the answer, or null if the game did not end that way.
+     */
+    public String answer() {
+        return this.answer;
+    }
 
-            // Close the PrintWriter to ensure the data is written and the file is saved
-            pw.close();
-        } catch (FileNotFoundException ex) {
-            // Log an error message if the file could not be created or written to
-            Logger.getLogger(WordleGame.class.getName()).log(Level.SEVERE, null, ex);
-        }
+    /**
+     * Returns the session of the game.
+     *
+     * @return the session.
+     */
+    GameSession session() {
+        return this.session;
+    }
 
-        // Return the PrintWriter object (note: it will be closed if no exception
-        // occurs)
-        return pw;
+    /**
+     * Returns the record of the game once it is over.
+     *
+     * @return the finished game, or null if it is still being played or was
+     * abandoned when the input ended.
+     */
+    public GameRecord result() {
+        return this.session.status() == GameSession.Status.PLAYING ? null : GameRecord.of(this.session);
     }
 
     /**
      * Main game logic where the user attempts to guess the secret word.
      * Compares the user's input against the secret word and provides feedback
-     * on correct letters (green) and misplaced letters (yellow).
+     * on correct letters (green) and misplaced letters (yellow). Each turn
+     * only the new row of the board is printed, with a single flush.
      */
     public void start() {
         boolean stillPlaying = true; // Flag to determine if the game is ongoing.
         boolean correctWord;
-        int tries = 0; // Counter for attempts made.
-        String green = "\033[32m"; // ANSI code for green (correct position and letter).
-        String yellow = "\033[33m"; // ANSI code for yellow (correct letter, wrong position).
-        String reset = "\u001B[0m"; // ANSI code to reset text formatting.
-        String purple = "\u001B[35m"; // ANSI code to reset text formatting.
-        String red = "\u001B[31m"; // ANSI code to reset text formatting.
-        StringBuilder out = new StringBuilder(); // Tracks the current attempt's output.
+        int remainingAttempts; // Remaining attempts for the player.
         String enteredWord;
 
-        System.out.print("----------------INICIO-------------------------\n");
+        this.screen.text("----------------INICIO-------------------------\n");
+        if (this.solver != null) {
+            Solver.Suggestion opening = this.solver.suggest(this.candidates, SOLVER_BUDGET_MILLIS);
+            this.screen.text(String.format("Sugerencia para empezar: %s (%.2f bits de informacion)\n", opening.word(),
+                    opening.entropy()));
+        }
+        // Debugging output to show the secret word (can be removed in production).
+        this.screen.text("\nPalabra secreta(SOLO PARA PRUEBAS):   " + this.session.secretWord() + "\n");
         do {
-            // Debugging output to show the secret word (can be removed in production).
-            System.out.print(reset + "\n");
-            System.out.print("Palabra secreta(SOLO PARA PRUEBAS):   " + this.SECRETWORD);
-
-            // Get user input.
+            // Get user input; the session scores it.
             enteredWord = this.getUserInput();
-            correctWord = enteredWord.equals(this.SECRETWORD);
+            if (enteredWord == null) {
+                this.screen.text("\nFin de la entrada, partida abandonada\n");
+                break;
+            }
+            correctWord = this.session.status() == GameSession.Status.WON;
+
+            // Feedback of the guess: each position is GREEN, YELLOW or GREY.
+            int feedback = this.session.lastFeedback();
+            this.screen.row(enteredWord, feedback);
 
             // If the user guesses the secret word, the game ends.
             if (correctWord) {
-                System.out.println("\n¡Bravo!!!! Has adivinado la palabra secreta : " + green + enteredWord);
-                triesHistory.append(String.format("Bravo!!!! Has adivinado la palabra secreta :%s", enteredWord));
-                ShowTriesHistory(triesHistory);
+                this.screen.text("\n¡Bravo!!!! Has adivinado la palabra secreta : ")
+                        .text(BoardRenderer.GREEN, enteredWord).text("\n");
+                ShowTriesHistory();
                 stillPlaying = false;
 
-            } else {
-                String[] markedChars = {"NO", "NO", "NO", "NO", "NO"};
-
-                // GreenChars
-                for (int i = 0; i < this.SECRETWORD.length(); i++) {
-                    boolean greenCondition = this.SECRETWORD.charAt(i) == enteredWord.charAt(i)
-                            && markedChars[i] == "NO";
-                    if (greenCondition) {
-                        markedChars[i] = "GREEN";
-                    }
-                }
-                // YellowChars
-                for (int i = 0; i < this.WORD_LENGHT; i++) {
-
-                    if (markedChars[i] != "GREEN") {
-
-                        char systemsCheckedChar = this.SECRETWORD.charAt(i);
-                        int systemsCounter = 0;
-                        int usersCounter = 0;
-
-                        // sacamos contadores
-                        for (int j = 0; j < this.WORD_LENGHT; j++) {
-                            if (markedChars[j] != "GREEN") {
-                                char currentSystemChar = this.SECRETWORD.charAt(j);
-                                char currentUserChar = enteredWord.charAt(j);
-
-                                if (systemsCheckedChar == currentSystemChar) {
-                                    systemsCounter++;
-                                }
-                                if (systemsCheckedChar == currentUserChar) {
-                                    usersCounter++;
-                                }
-                            }
-                        }
-                        for (int k = 0; k < this.WORD_LENGHT; k++) {
-                            // solo entramos a colorear si existe esa letra en enteredWord
-                            if (usersCounter > 0) {
-                                boolean yellowCondition = systemsCheckedChar == enteredWord.charAt(k)
-                                        && systemsCounter > 0;
-                                if (yellowCondition) {
-                                    markedChars[k] = "YELLOW";
-                                    systemsCounter--;
-                                    usersCounter--;
-                                }
-                            }
-                        }
-                    }
-                }
-                for (int i = 0; i < markedChars.length; i++) {
-                    switch (markedChars[i]) {
-                        case "GREEN":
-                            out.append(green + enteredWord.charAt(i));
-                            break;
-                        case "YELLOW":
-                            out.append(yellow + enteredWord.charAt(i));
-                            break;
-                        default:
-                            out.append(reset + enteredWord.charAt(i));
-                    }
+            } else if (this.session.status() == GameSession.Status.PLAYING) {
+                remainingAttempts = this.session.remainingAttempts();
 
+                if (remainingAttempts == 2) {
+                    this.screen.text(BoardRenderer.PURPLE, String.format(
+                            "No quiero presionarle pero solo te quedan %d intentos", remainingAttempts));
+                } else if (remainingAttempts == 1) {
+                    this.screen.text(BoardRenderer.RED, String.format(
+                            "Ultima oportunidad, solo te queda %d intento", remainingAttempts));
+                } else {
+                    // Inform the player of their progress if attempts remain.
+                    this.screen.text(String.format("Estas cerca sigue intentando, quedan %d intentos",
+                            remainingAttempts));
                 }
-                out.append(reset + "\n");
-                // Increment the number of attempts and update remaining attempts.
-                tries++;
-                this.remainingAttempts = this.MAX_TRIES - tries;
-
-                // Append the current attempt's output to the history.
-                triesHistory.append(String.format("%s", out));
-                // reset string builder
-                out.setLength(0);
-
-                if (tries != this.MAX_TRIES) {
-
-                    if (this.remainingAttempts == this.MAX_TRIES - 4) {
-                        System.out.printf("\n%sNo quiero presionarle pero solo te quedan %d intentos\nTus anteriores intentos:\n", purple, this.remainingAttempts);
-                        System.out.printf("%s", triesHistory);
-                    } else if (this.remainingAttempts == this.MAX_TRIES - 5) {
-                        System.out.printf("\n%sUltima oportunidad, solo te queda %d intento\nTus anteriores intentos:\n", red, this.remainingAttempts);
-                        System.out.printf("%s", triesHistory);
-                    } else {
-                        // Inform the player of their progress if attempts remain.
-                        System.out.printf("\n%sEstas cerca sigue intentando, quedan %d intentos\nTus anteriores intentos:\n", reset, this.remainingAttempts);
-                        System.out.printf("%s", triesHistory);
+                this.screen.text("\n");
+
+                if (this.hints != null) {
+                    // Keep only the words that would have given the same colors.
+                    this.hints.filter(this.candidates, enteredWord, feedback);
+                    this.screen.text(String.format("Pista: quedan %d palabras posibles %s\n",
+                            CandidateIndex.count(this.candidates),
+                            Arrays.toString(this.hints.examples(this.candidates, HINT_EXAMPLES))));
+                    if (this.solver != null) {
+                        Solver.Suggestion suggestion = this.solver.suggest(this.candidates, SOLVER_BUDGET_MILLIS);
+                        this.screen.text(String.format("Sugerencia: %s (%.2f bits de informacion)\n",
+                                suggestion.word(), suggestion.entropy()));
                     }
-
-                } else {
-                    // Player loses if maximum attempts are reached.
-
-                    //// ShowTriesHistory(triesHistory);
-                    System.out.print("\nHAS PERDIDO QUE MALA SUERTE\n");
-                    System.out.printf("\nTodos tus intentos:\n%s", triesHistory);
-                    triesHistory.append(String.format("OOps MALA SUERTE HAS PERDIDO\nLa Palabra secreta era:%s", this.SECRETWORD));
-                    ShowTriesHistory(triesHistory);
-                    stillPlaying = false;
                 }
+
+            } else {
+                // Player loses if maximum attempts are reached.
+                this.screen.text("\nHAS PERDIDO QUE MALA SUERTE\n");
+                this.screen.text("\nTodos tus intentos:\n").board();
+                ShowTriesHistory();
+                stillPlaying = false;
             }
         } while (stillPlaying);
 
-        System.out.print(reset);// reset any color to begin a new game or not
-        System.out.print("----------------FIN-------------------------\n");
+        this.screen.text("----------------FIN-------------------------\n");
+        this.screen.flush();
     }
 
     /**
@@ -0,0 +1,382 @@
+package wordlegame;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.ProtocolException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * WordleServer - Hosts many games at once over a plain-text TCP protocol.
+ *
+ * Every connection is served by its own virtual thread, so thousands of
+ * players can be connected to a single JVM. Games are {@link GameSession}s
+ * kept in a concurrent session table; a connection may play several games at
+ * the same time. Commands and replies are one line each (UTF-8):
+ *
+ * <pre>
+ * NEW [DAILY] [length] -&gt; OK id wordLength maxTries or ERROR TOO_MANY_GAMES max
+ * GUESS id word       -&gt; FEEDBACK pattern status remainingAttempts [secretWord]
+ *                        or ERROR verdict message
+ * STATE id            -&gt; STATE status tries remainingAttempts
+ * QUIT id             -&gt; OK id
+ * METRICS             -&gt; METRICS counters and latencies (see {@link Metrics#snapshot()})
+ * BYE                 -&gt; BYE (closes the connection)
+ * </pre>
+ *
+ * The pattern uses 'G' for green, 'Y' for yellow and '-' for grey. The
+ * secret word is only sent once the game is over. Secret words come from a
+ * {@link SecretScheduler}: every connection has its own shuffle-bag, so a
+ * player does not get repeated words, and {@code NEW DAILY} plays the word of
+ * the day. When the server is created with {@link DictionaryShards}, a game
+ * may ask for another word length (4 to 8 letters); the dictionary of that
+ * length is loaded the first time it is played. Finished games are saved
+ * to the {@link GameJournal} and, like the games of a closed connection,
+ * removed from the table. A connection may have at most
+ * {@value #MAX_GAMES_PER_CONNECTION} games in progress ({@code NEW} replies
+ * {@code ERROR TOO_MANY_GAMES} beyond that), and a line longer than
+ * {@value #MAX_LINE_CHARS} characters is answered with
+ * {@code ERROR LINE_TOO_LONG} and closes the connection, so a client cannot
+ * take up the memory of the server.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public final class WordleServer {
+
+    /**
+     * Default TCP port.
+     */
+    public static final int DEFAULT_PORT = 7070;
+
+    /**
+     * Games in progress allowed per connection.
+     */
+    public static final int MAX_GAMES_PER_CONNECTION = 16;
+
+    /**
+     * Longest command line accepted, without the line terminator.
+     */
+    public static final int MAX_LINE_CHARS = 256;
+
+    /**
+     * Chooses the secret words: one shuffle-bag per connection and the word
+     * of the day.
+     */
+    private final SecretScheduler secrets;
+
+    /**
+     * Validator shared by every game (it is stateless).
+     */
+    private final GuessValidator validator;
+
+    /**
+     * Dictionaries of the other word lengths, or null to play only the
+     * length of {@link #validator}.
+     */
+    private final DictionaryShards shards;
+
+    /**
+     * Maximum number of attempts of every game.
+     */
+    private final int maxTries;
+
+    /**
+     * Journal where finished games are saved.
+     */
+    private final GameJournal journal;
+
+    /**
+     * Games in progress, by id.
+     */
+    private final ConcurrentHashMap<Long, GameSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Source of game ids.
+     */
+    private final AtomicLong nextId = new AtomicLong();
+
+    /**
+     * Creates a server.
+     *
+     * @param words the words used as secret words.
+     * @param validator the validator for the guesses.
+     * @param maxTries the maximum number of attempts of every game.
+     * @param journal the journal where finished games are saved.
+     */
+    public WordleServer(WordList words, GuessValidator validator, int maxTries, GameJournal journal) {
+        this(new SecretScheduler(words), validator, maxTries, journal);
+    }
+
+    /**
+     * Creates a server with its own secret word scheduler.
+     *
+     * @param secrets the scheduler of the secret words.
+     * @param validator the validator for the guesses.
+     * @param maxTries the maximum number of attempts of every game.
+     * @param journal the journal where finished games are saved.
+     */
+    public WordleServer(SecretScheduler secrets, GuessValidator validator, int maxTries, GameJournal journal) {
+        this(secrets, validator, null, maxTries, journal);
+    }
+
+    /**
+     * Creates a server that plays every word length of a word list.
+     *
+     * @param shards the dictionaries of every length.
+     * @param wordLength the length of the games when none is asked for; its
+     * dictionary is loaded now.
+     * @param maxTries the maximum number of attempts of every game.
+     * @param journal the journal where finished games are saved.
+     * @throws IOException if the dictionary of the default length cannot be
+     * loaded.
+     */
+    public WordleServer(DictionaryShards shards, int wordLength, int maxTries, GameJournal journal)
+            throws IOException {
+        this(shards.shard(wordLength), shards, maxTries, journal);
+    }
+
+    private WordleServer(DictionaryShards.Shard shard, DictionaryShards shards, int maxTries, GameJournal journal) {
+        this(shard.secrets(), shard.validator(), shards, maxTries, journal);
+    }
+
+    private WordleServer(SecretScheduler secrets, GuessValidator validator, DictionaryShards shards, int maxTries,
+            GameJournal journal) {
+        this.secrets = secrets;
+        this.validator = validator;
+        this.shards = shards;
+        this.maxTries = maxTries;
+        this.journal = journal;
+    }
+
+    /**
+     * Accepts connections until the thread is interrupted or the socket
+     * fails. Each connection is handled on its own virtual thread.
+     *
+     * @param port the TCP port to listen on.
+     * @throws IOException if the port cannot be opened.
+     */
+    public void serve(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port);
+                ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor()) {
+            System.out.printf("Servidor Wordle escuchando en el puerto %d\n", server.getLocalPort());
+            while (!Thread.currentThread().isInterrupted()) {
+                Socket socket = server.accept();
+                connections.submit(() -> handle(socket));
+            }
+        }
+    }
+
+    /**
+     * Returns the number of games in progress.
+     *
+     * @return the size of the session table.
+     */
+    public int activeSessions() {
+        return this.sessions.size();
+    }
+
+    /**
+     * Serves one connection until the client says BYE or disconnects.
+     *
+     * @param socket the client connection.
+     */
+    private void handle(Socket socket) {
+        Set<Long> owned = new HashSet<>(); // games in progress of this connection
+        Map<Integer, SecretScheduler.Bag> bags = new HashMap<>(); // this player's secret words, by length
+        try (socket;
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)))) {
+            StringBuilder buffer = new StringBuilder(64);
+            while (true) {
+                String line;
+                try {
+                    line = readLine(in, buffer);
+                } catch (ProtocolException ex) {
+                    out.println("ERROR LINE_TOO_LONG " + MAX_LINE_CHARS);
+                    out.flush();
+                    break;
+                }
+                if (line == null) {
+                    break;
+                }
+                long start = Metrics.start();
+                String reply = execute(line.trim(), owned, bags);
+                Metrics.global().stop(Metrics.Phase.COMMAND, start);
+                out.println(reply);
+                out.flush();
+                if (reply.equals("BYE")) {
+                    break;
+                }
+            }
+        } catch (IOException ex) {
+            Logger.getLogger(WordleServer.class.getName()).log(Level.FINE, "Connection closed", ex);
+        } finally {
+            for (Long id : owned) {
+                this.sessions.remove(id);
+            }
+        }
+    }
+
+    /**
+     * Reads one line of at most {@value #MAX_LINE_CHARS} characters, ended
+     * by '\n' or by the end of the stream.
+     *
+     * @param in the connection input.
+     * @param line buffer reused between lines.
+     * @return the line without the '\n', or null at the end of the stream.
+     * @throws ProtocolException if the line is too long.
+     * @throws IOException if the connection fails.
+     */
+    private static String readLine(BufferedReader in, StringBuilder line) throws IOException {
+        line.setLength(0);
+        int c;
+        while ((c = in.read()) != '\n') {
+            if (c < 0) {
+                return line.length() == 0 ? null : line.toString();
+            }
+            if (line.length() == MAX_LINE_CHARS) {
+                throw new ProtocolException("Line longer than " + MAX_LINE_CHARS + " characters");
+            }
+            line.append((char) c);
+        }
+        return line.toString();
+    }
+
+    /**
+     * Runs one command.
+     *
+     * @param command the command line sent by the client.
+     * @param owned ids of the games in progress of the connection; only these
+     * can be played, inspected or quit by it.
+     * @param bags the connection's secret words, by word length.
+     * @return the reply line.
+     */
+    String execute(String command, Set<Long> owned, Map<Integer, SecretScheduler.Bag> bags) {
+        String[] parts = command.split(" ");
+        switch (parts[0].toUpperCase()) {
+            case "NEW": {
+                boolean daily = parts.length > 1 && parts[1].equalsIgnoreCase("DAILY");
+                int lengthArg = daily ? 2 : 1;
+                if (parts.length > lengthArg + 1) {
+                    return "ERROR USAGE NEW [DAILY] [length]";
+                }
+                if (owned.size() >= MAX_GAMES_PER_CONNECTION) {
+                    return "ERROR TOO_MANY_GAMES " + MAX_GAMES_PER_CONNECTION;
+                }
+                SecretScheduler scheduler = this.secrets;
+                GuessValidator guesses = this.validator;
+                if (parts.length > lengthArg) {
+                    int length;
+                    try {
+                        length = Integer.parseInt(parts[lengthArg]);
+                    } catch (NumberFormatException e) {
+                        return "ERROR USAGE NEW [DAILY] [length]";
+                    }
+                    if (length != this.validator.wordLength()) {
+                        if (this.shards == null || !DictionaryShards.isSupported(length)) {
+                            return "ERROR UNSUPPORTED_LENGTH " + length;
+                        }
+                        try {
+                            DictionaryShards.Shard shard = this.shards.shard(length);
+                            scheduler = shard.secrets();
+                            guesses = shard.validator();
+                        } catch (IOException ex) {
+                            Logger.getLogger(WordleServer.class.getName()).log(Level.WARNING,
+                                    "No dictionary of " + length + " letters", ex);
+                            return "ERROR NO_WORDS " + length;
+                        }
+                    }
+                }
+                SecretScheduler words = scheduler;
+                String secret = daily ? words.daily(LocalDate.now())
+                        : bags.computeIfAbsent(guesses.wordLength(), length -> words.newBag()).next();
+                long id = this.nextId.incrementAndGet();
+                GameSession session = new GameSession(secret, this.maxTries, guesses);
+                this.sessions.put(id, session);
+                owned.add(id);
+                return "OK " + id + " " + session.wordLength() + " " + session.maxTries();
+            }
+            case "GUESS": {
+                if (parts.length != 3) {
+                    return "ERROR USAGE GUESS id word";
+                }
+                Long id = owned(parts[1], owned);
+                if (id == null) {
+                    return "ERROR UNKNOWN_GAME " + parts[1];
+                }
+                GameSession session = this.sessions.get(id);
+                GuessValidator.Verdict verdict = session.submit(parts[2]);
+                if (verdict != GuessValidator.Verdict.VALID) {
+                    return "ERROR " + verdict + " " + verdict.message(session.wordLength());
+                }
+                String reply = "FEEDBACK " + Feedback.pattern(session.lastFeedback(), session.wordLength())
+                        + " " + session.status() + " " + session.remainingAttempts();
+                if (session.status() != GameSession.Status.PLAYING) {
+                    this.sessions.remove(id);
+                    owned.remove(id);
+                    // May wait for room in the journal queue; no lock is held here.
+                    this.journal.append(GameRecord.of(session));
+                    reply += " " + session.secretWord();
+                }
+                return reply;
+            }
+            case "STATE": {
+                Long id = parts.length == 2 ? owned(parts[1], owned) : null;
+                if (id == null) {
+                    return "ERROR UNKNOWN_GAME";
+                }
+                GameSession session = this.sessions.get(id);
+                return "STATE " + session.status() + " " + session.tries() + " " + session.remainingAttempts();
+            }
+            case "QUIT": {
+                Long id = parts.length == 2 ? owned(parts[1], owned) : null;
+                if (id == null) {
+                    return "ERROR UNKNOWN_GAME";
+                }
+                this.sessions.remove(id);
+                owned.remove(id);
+                return "OK " + parts[1];
+            }
+            case "METRICS":
+                return "METRICS " + Metrics.global().snapshot();
+            case "BYE":
+                return "BYE";
+            default:
+                return "ERROR UNKNOWN_COMMAND " + parts[0];
+        }
+    }
+
+    /**
+     * Checks a game id sent by the client against the games of its
+     * connection.
+     *
+     * @param id the game id as text.
+     * @param owned ids of the games in progress of the connection.
+     * @return the id, or null if it is not a number or not a game in
+     * progress of this connection.
+     */
+    private static Long owned(String id, Set<Long> owned) {
+        try {
+            Long game = Long.valueOf(id);
+            return owned.contains(game) ? game : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package wordlegame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import org.junit.Test;
+
+/**
+ * FeedbackTest - Checks the colors given to repeated letters and that every
+ * scorer agrees with {@link Feedback#score(CharSequence, CharSequence)}:
+ * the packed one, the batch scorers (scalar and, when the Vector API is
+ * available, vectorized) and the feedback matrix.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public class FeedbackTest {
+
+    /**
+     * Secret word, guess and expected pattern.
+     */
+    private static final String[][] CASES = {
+        {"MENOS", "MEEES", "GG--G"},
+        {"MENOS", "EEEEE", "-G---"},
+        {"LLAMA", "ALALA", "-GGYG"},
+        {"SALSA", "SSSSS", "G--G-"},
+        {"PERRO", "TORRE", "-YGGY"},
+        {"CARIZ", "CARIZ", "GGGGG"},
+        {"SUE\u00D1O", "DUE\u00D1O", "-GGGG"},
+        {"ABBEY", "BABES", "YYGG-"},
+        {"ARBOL", "LLAMA", "Y-Y--"}
+    };
+
+    /**
+     * Letters of the generated words, few of them so that words share and
+     * repeat letters.
+     */
+    private static final String LETTERS = "AEMNOS\u00D1";
+
+    @Test
+    public void repeatedLetters() {
+        for (String[] test : CASES) {
+            int feedback = Feedback.score(test[0], test[1]);
+            assertEquals(test[0] + " / " + test[1], test[2], Feedback.pattern(feedback, test[0].length()));
+            assertEquals(test[0] + " / " + test[1], feedback,
+                    Feedback.score(PackedWord.pack(test[0]), PackedWord.pack(test[1])));
+        }
+    }
+
+    @Test
+    public void packedScorerAgrees() {
+        for (int length = 1; length <= Feedback.MAX_LENGTH; length++) {
+            String[] words = words(length, 200, length);
+            for (String secret : words) {
+                for (String guess : words) {
+                    assertEquals(secret + " / " + guess, Feedback.score(secret, guess),
+                            Feedback.score(PackedWord.pack(secret), PackedWord.pack(guess)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void batchScorersAgree() {
+        for (int length = 4; length <= 6; length++) {
+            String[] words = words(length, 1000, 42 + length);
+            WordList list = PackedWordList.of(words, length);
+            BatchScorer[] scorers = {new BatchScorer(list), BatchScorer.of(list)};
+            int[] feedbacks = new int[list.size()];
+            for (BatchScorer scorer : scorers) {
+                for (int g = 0; g < list.size(); g += 7) {
+                    scorer.score(list.packedAt(g), feedbacks);
+                    for (int s = 0; s < list.size(); s++) {
+                        assertEquals(list.wordAt(s) + " / " + list.wordAt(g),
+                                Feedback.score(list.wordAt(s), list.wordAt(g)), feedbacks[s]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void feedbackMatrixAgrees() throws IOException {
+        WordList list = PackedWordList.of(words(5, 300, 7), 5);
+        Path file = Files.createTempFile("feedback-test", ".matrix");
+        try {
+            FeedbackMatrix matrix = FeedbackMatrix.openOrBuild(list, file);
+            assertNotNull(matrix);
+            for (int g = 0; g < list.size(); g++) {
+                for (int s = 0; s < list.size(); s++) {
+                    assertEquals(Feedback.score(list.wordAt(s), list.wordAt(g)), matrix.feedback(g, s));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Generates distinct words of a few letters.
+     */
+    private static String[] words(int length, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Set<String> words = new LinkedHashSet<>();
+        char[] word = new char[length];
+        for (int attempts = 0; words.size() < count && attempts < count * 20; attempts++) {
+            for (int i = 0; i < length; i++) {
+                word[i] = LETTERS.charAt(random.nextInt(LETTERS.length()));
+            }
+            words.add(new String(word));
+        }
+        return words.toArray(new String[0]);
+    }
+}
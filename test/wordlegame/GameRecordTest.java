@@ -0,0 +1,94 @@
+package wordlegame;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.SplittableRandom;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * GameRecordTest - Checks that the journal times read by the parser of
+ * {@link GameRecord} are those written by {@link Instant#toString()} and read
+ * by {@link Instant#parse(CharSequence)}, and that records round-trip.
+ *
+ * Author: MOHAMED EL HAGIB BOUANANE Version: FINAL VERSION
+ */
+public class GameRecordTest {
+
+    @Test
+    public void instantsRoundTrip() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 200_000; i++) {
+            long seconds = random.nextLong(-62_135_596_800L, 253_402_300_799L); // years 1 to 9999
+            int nanos;
+            switch (i % 4) {
+                case 0:
+                    nanos = 0;
+                    break;
+                case 1:
+                    nanos = random.nextInt(1000) * 1_000_000; // milliseconds
+                    break;
+                case 2:
+                    nanos = random.nextInt(1_000_000) * 1000; // microseconds
+                    break;
+                default:
+                    nanos = random.nextInt(1_000_000_000);
+                    break;
+            }
+            Instant time = Instant.ofEpochSecond(seconds, nanos);
+            assertEquals(time, GameRecord.parseInstant(time.toString()));
+        }
+    }
+
+    @Test
+    public void otherFormsAsInstantParse() {
+        String[] texts = {
+            "2025-06-05T00:20:10Z", "2025-06-05T00:20:10.1Z", "2025-06-05T00:20:10.123456789Z",
+            "2025-06-05T00:20:10+02:00", "2025-06-05T00:20:10.5-05:30", "+12025-06-05T00:20:10Z",
+            "2024-02-29T23:59:59Z"
+        };
+        for (String text : texts) {
+            assertEquals(text, Instant.parse(text), GameRecord.parseInstant(text));
+        }
+    }
+
+    @Test
+    public void badTimesAsInstantParse() {
+        String[] texts = {
+            "2025-02-30T00:00:00Z", "2025-13-01T00:00:00Z", "2025-06-05T24:00:00Z", "2025-06-05T25:00:00Z",
+            "2025-06-05T00:60:00Z", "2025-06-05T00:00:60Z", "2025-06-05T00:00:00.Z",
+            "2025-06-05T00:00:00.1234567890Z", "2025-06-05 00:00:00Z", "2025-O6-05T00:00:00Z",
+            "2025-06-05T00:00:00", "2025-06-05T00:00:0-Z"
+        };
+        for (String text : texts) {
+            Instant expected;
+            try {
+                expected = Instant.parse(text);
+            } catch (DateTimeParseException e) {
+                expected = null;
+            }
+            try {
+                assertEquals(text, expected, GameRecord.parseInstant(text));
+            } catch (DateTimeParseException e) {
+                if (expected != null) {
+                    fail("Rejected " + text);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void recordsRoundTrip() {
+        GameRecord record = new GameRecord(Instant.parse("2025-06-05T00:20:10.123Z"), "MENOS", true, 8,
+                new String[]{"MEEES", "MENOS"},
+                new int[]{Feedback.score("MENOS", "MEEES"), Feedback.allGreen(5)});
+        assertEquals("2025-06-05T00:20:10.123Z\tMENOS\tWON\t8\tMEEES:GG--G MENOS:GGGGG", record.toLine());
+        assertEquals(record, GameRecord.parse(record.toLine()));
+
+        String legacy = "2025-06-05T00:20:10Z\tMENOS\tLOST\tMEEES:GG--G";
+        GameRecord old = GameRecord.parse(legacy);
+        assertEquals(0, old.maxTries());
+        assertEquals(legacy, old.toLine());
+    }
+}